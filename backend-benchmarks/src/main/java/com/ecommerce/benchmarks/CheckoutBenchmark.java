@@ -0,0 +1,158 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.benchmarks.fixtures.CallCounter;
+import com.ecommerce.benchmarks.fixtures.Fixtures;
+import com.ecommerce.benchmarks.fixtures.RepositoryStub;
+import com.ecommerce.dto.request.CreateOrderRequest;
+import com.ecommerce.dto.response.OrderResponse;
+import com.ecommerce.entity.Address;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.mapper.AddressMapperImpl;
+import com.ecommerce.mapper.InvoiceMapperImpl;
+import com.ecommerce.mapper.OrderMapper;
+import com.ecommerce.mapper.OrderMapperImpl;
+import com.ecommerce.repository.AddressRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.CacheService;
+import com.ecommerce.service.InventoryService;
+import com.ecommerce.service.InvoiceService;
+import com.ecommerce.service.NotificationService;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.service.OutboxService;
+import com.ecommerce.service.PaymentService;
+import com.ecommerce.service.ShippingService;
+import com.ecommerce.service.StockReservationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderService#createOrder} end to end with in-memory repositories: item pricing, GST split,
+ * reservation, outbox publishing and response mapping. The {@code repositoryCalls} counter reports
+ * how many repository round trips one checkout makes for the given number of order lines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CheckoutBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int lines;
+
+    private final CallCounter counter = new CallCounter();
+    private OrderService orderService;
+    private CreateOrderRequest request;
+    private User user;
+    private long nextOrderId;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class QueryCount {
+        public long repositoryCalls;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = Fixtures.user(User.CustomerType.BUSINESS);
+        Address address = Fixtures.address(user);
+        Map<Long, Product> products = new TreeMap<>();
+        Fixtures.products(lines).forEach(product -> products.put(product.getId(), product));
+
+        ProductRepository productRepository = RepositoryStub.of(ProductRepository.class, counter)
+                .answer("findAllByIdForUpdate", args -> select(products, (Collection<?>) args[0]))
+                .answer("getReferenceById", args -> products.get(args[0]))
+                .proxy();
+        AddressRepository addressRepository = RepositoryStub.of(AddressRepository.class, counter)
+                .answer("findById", args -> Optional.of(address))
+                .proxy();
+        OrderRepository orderRepository = RepositoryStub.of(OrderRepository.class, counter)
+                .answer("save", args -> {
+                    Order order = (Order) args[0];
+                    if (order.getId() == null) {
+                        order.setId(++nextOrderId);
+                    }
+                    return order;
+                })
+                .proxy();
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CacheService cacheService = new CacheService(new ConcurrentMapCacheManager(CacheService.PRODUCTS_CACHE));
+
+        Map<Class<?>, Object> dependencies = new HashMap<>();
+        dependencies.put(ProductRepository.class, productRepository);
+        dependencies.put(AddressRepository.class, addressRepository);
+        dependencies.put(OrderRepository.class, orderRepository);
+        dependencies.put(CacheService.class, cacheService);
+        dependencies.put(MeterRegistry.class, meterRegistry);
+        dependencies.put(ObjectMapper.class, new ObjectMapper());
+
+        InventoryService inventoryService = Fixtures.construct(InventoryService.class, dependencies, counter);
+        dependencies.put(InventoryService.class, inventoryService);
+
+        StockReservationService stockReservationService =
+                Fixtures.construct(StockReservationService.class, dependencies, counter);
+        Fixtures.setField(stockReservationService, "reservationTtl", Duration.ofMinutes(15));
+        dependencies.put(StockReservationService.class, stockReservationService);
+
+        OrderMapperImpl orderMapper = new OrderMapperImpl();
+        Fixtures.setField(orderMapper, "addressMapper", new AddressMapperImpl());
+        Fixtures.setField(orderMapper, "invoiceMapper", new InvoiceMapperImpl());
+
+        dependencies.put(OrderMapper.class, orderMapper);
+        dependencies.put(OutboxService.class, Fixtures.construct(OutboxService.class, dependencies, counter));
+        dependencies.put(InvoiceService.class, Fixtures.construct(InvoiceService.class, dependencies, counter));
+        dependencies.put(NotificationService.class, new NotificationService());
+        dependencies.put(PaymentService.class, new PaymentService());
+        dependencies.put(ShippingService.class, new ShippingService());
+        orderService = Fixtures.construct(OrderService.class, dependencies, counter);
+
+        List<CreateOrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (Product product : products.values()) {
+            CreateOrderRequest.OrderItemRequest item = new CreateOrderRequest.OrderItemRequest();
+            item.setProductId(product.getId());
+            item.setQuantity(1 + (int) (product.getId() % 4));
+            items.add(item);
+        }
+        request = new CreateOrderRequest();
+        request.setItems(items);
+        request.setShippingAddressId(address.getId());
+        request.setPaymentMethod("UPI");
+    }
+
+    @Benchmark
+    public OrderResponse createOrder(QueryCount queryCount) {
+        counter.reset();
+        OrderResponse response = orderService.createOrder(request, user);
+        queryCount.repositoryCalls = counter.get();
+        return response;
+    }
+
+    private static List<Product> select(Map<Long, Product> products, Collection<?> ids) {
+        List<Product> selected = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            Product product = products.get(id);
+            if (product != null) {
+                selected.add(product);
+            }
+        }
+        return selected;
+    }
+}
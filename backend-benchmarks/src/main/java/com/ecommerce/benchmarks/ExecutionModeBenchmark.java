@@ -0,0 +1,62 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.utils.VirtualThreads;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A burst of concurrent I/O-bound requests, each blocking for {@code blockMillis} like a checkout
+ * or tracking call waiting on the database, run on Tomcat's default 200 worker threads versus a
+ * virtual thread per request. The virtual rows need the benchmark JVM to be Java 21 or later.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class ExecutionModeBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private String mode;
+
+    @Param({"1000", "5000"})
+    private int concurrentRequests;
+
+    @Param({"20"})
+    private int blockMillis;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "VIRTUAL".equals(mode)
+                ? VirtualThreads.newThreadPerTaskExecutor("bench-")
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrentRequests);
+        long blockNanos = TimeUnit.MILLISECONDS.toNanos(blockMillis);
+        for (int i = 0; i < concurrentRequests; i++) {
+            executor.execute(() -> {
+                LockSupport.parkNanos(blockNanos);
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.utils.GstUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GstUtilsBenchmark {
+
+    @Param({"true", "false"})
+    private boolean intraState;
+
+    private final BigDecimal amount = new BigDecimal("12499.50");
+    private final BigDecimal gstRate = new BigDecimal("18");
+
+    @Benchmark
+    public Map<String, BigDecimal> calculateTaxBreakup() {
+        return GstUtils.calculateTaxBreakup(amount, gstRate, intraState);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.benchmarks.fixtures.Fixtures;
+import com.ecommerce.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validation and subject extraction as done by the authentication filter on every request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET =
+            "benchmark-secret-key-that-is-long-enough-for-hs512-signing-0123456789abcdef";
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        Fixtures.setField(tokenProvider, "jwtSecret", SECRET);
+        Fixtures.setField(tokenProvider, "jwtExpirationInMs", 3_600_000);
+        Fixtures.setField(tokenProvider, "refreshExpirationInMs", 86_400_000);
+        Fixtures.setField(tokenProvider, "claimsCacheMaxSize", 10_000L);
+        tokenProvider.init();
+        token = tokenProvider.generateTokenFromEmail("buyer@example.com");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getEmailFromToken() {
+        return tokenProvider.getEmailFromToken(token);
+    }
+
+    @Benchmark
+    public String validateThenExtract() {
+        // The filter's former two-call flow
+        return tokenProvider.validateToken(token) ? tokenProvider.getEmailFromToken(token) : null;
+    }
+
+    @Benchmark
+    public String parseValidatedClaims() {
+        // What JwtAuthenticationFilter does for each authenticated request
+        return tokenProvider.parseValidatedClaims(token).map(Claims::getSubject).orElse(null);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.benchmarks.fixtures.Fixtures;
+import com.ecommerce.dto.response.ProductResponse;
+import com.ecommerce.entity.Product;
+import com.ecommerce.mapper.ProductMapper;
+import com.ecommerce.mapper.ProductMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProductMapperBenchmark {
+
+    private final ProductMapper productMapper = new ProductMapperImpl();
+    private List<Product> products;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        products = Fixtures.products(256);
+        products.forEach(product -> product.getImageUrls().add("/uploads/products/" + product.getId() + "/main.jpg"));
+    }
+
+    @Benchmark
+    public ProductResponse toResponse() {
+        Product product = products.get(next);
+        next = (next + 1) & 255;
+        return productMapper.toResponse(product);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.benchmarks.fixtures;
+
+/**
+ * Counts repository invocations made through {@link RepositoryStub}s; each one stands for
+ * a database round trip in production. Benchmarks run single-threaded, so a plain field is enough.
+ */
+public final class CallCounter {
+
+    private long calls;
+
+    void increment() {
+        calls++;
+    }
+
+    public long get() {
+        return calls;
+    }
+
+    public void reset() {
+        calls = 0;
+    }
+}
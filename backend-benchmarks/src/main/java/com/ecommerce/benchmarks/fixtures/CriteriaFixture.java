@@ -0,0 +1,50 @@
+package com.ecommerce.benchmarks.fixtures;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.MySQLDialect;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Hibernate session factory over the application's entities with no database behind it.
+ * JDBC metadata access is disabled, so it is only good for building criteria queries.
+ */
+public final class CriteriaFixture implements AutoCloseable {
+
+    private static final String ENTITY_PACKAGE = "com.ecommerce.entity";
+
+    private final SessionFactory sessionFactory;
+
+    public CriteriaFixture() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, MySQLDialect.class.getName())
+                .applySetting("hibernate.temp.use_jdbc_metadata_defaults", "false")
+                .build();
+
+        MetadataSources sources = new MetadataSources(registry);
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        for (BeanDefinition candidate : scanner.findCandidateComponents(ENTITY_PACKAGE)) {
+            sources.addAnnotatedClass(ClassUtils.resolveClassName(candidate.getBeanClassName(), null));
+        }
+
+        sessionFactory = sources.buildMetadata().buildSessionFactory();
+    }
+
+    public CriteriaBuilder getCriteriaBuilder() {
+        return sessionFactory.getCriteriaBuilder();
+    }
+
+    @Override
+    public void close() {
+        sessionFactory.close();
+    }
+}
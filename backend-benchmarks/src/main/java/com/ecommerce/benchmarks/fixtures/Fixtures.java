@@ -0,0 +1,136 @@
+package com.ecommerce.benchmarks.fixtures;
+
+import com.ecommerce.entity.Address;
+import com.ecommerce.entity.Cart;
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic in-memory entities and wiring helpers, so benchmarks run without a database.
+ */
+public final class Fixtures {
+
+    private static final String[] BRANDS = {"Bosch", "Makita", "Stanley", "Taparia", "Dewalt"};
+    private static final BigDecimal[] GST_RATES = {
+            new BigDecimal("5"), new BigDecimal("12"), new BigDecimal("18"), new BigDecimal("28")};
+
+    private Fixtures() {
+    }
+
+    public static List<Product> products(int count) {
+        Random random = new Random(42);
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Power Tools");
+
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Product product = new Product();
+            product.setId((long) i);
+            product.setName(BRANDS[i % BRANDS.length] + " Impact Drill " + i);
+            product.setSku("SKU-" + (10000 + i));
+            product.setPartNumber("PN-" + i);
+            product.setBrand(BRANDS[i % BRANDS.length]);
+            product.setDescription("Cordless impact drill with brushless motor, model " + i);
+            product.setCategory(category);
+            product.setBasePrice(BigDecimal.valueOf(100 + random.nextInt(50_000), 2));
+            product.setBusinessPrice(BigDecimal.valueOf(90 + random.nextInt(45_000), 2));
+            product.setGstApplicable(i % 7 != 0);
+            product.setGstRate(GST_RATES[i % GST_RATES.length]);
+            product.setStockQuantity(1_000_000);
+            product.setReservedQuantity(0);
+            product.setMinStockLevel(10);
+            product.setActive(true);
+            products.add(product);
+        }
+        return products;
+    }
+
+    public static User user(User.CustomerType customerType) {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("buyer@example.com");
+        user.setFirstName("Asha");
+        user.setLastName("Rao");
+        user.setCustomerType(customerType);
+        return user;
+    }
+
+    public static Address address(User user) {
+        Address address = new Address();
+        address.setId(1L);
+        address.setUser(user);
+        address.setState("Maharashtra");
+        address.setPostalCode("411001");
+        return address;
+    }
+
+    public static Cart cart(User user, List<Product> products) {
+        Cart cart = new Cart();
+        cart.setId(1L);
+        cart.setUser(user);
+        cart.setItems(new ArrayList<>());
+        for (int i = 0; i < products.size(); i++) {
+            CartItem item = new CartItem();
+            item.setId((long) i + 1);
+            item.setCart(cart);
+            item.setProduct(products.get(i));
+            item.setQuantity(1 + i % 5);
+            cart.getItems().add(item);
+        }
+        return cart;
+    }
+
+    /**
+     * Calls the single constructor of {@code type}, taking each argument from {@code dependencies}
+     * by type. Unlisted interface parameters become counting {@link RepositoryStub}s; anything else is null.
+     */
+    public static <T> T construct(Class<T> type, Map<Class<?>, Object> dependencies, CallCounter counter) {
+        Constructor<?> constructor = type.getDeclaredConstructors()[0];
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Object[] args = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> parameterType = parameterTypes[i];
+            if (dependencies.containsKey(parameterType)) {
+                args[i] = dependencies.get(parameterType);
+            } else if (parameterType.isInterface()) {
+                args[i] = RepositoryStub.of(parameterType, counter).proxy();
+            }
+        }
+        try {
+            return type.cast(constructor.newInstance(args));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot construct " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Sets a field that Spring would normally inject, such as an {@code @Value} property.
+     */
+    public static void setField(Object target, String name, Object value) {
+        Class<?> type = target.getClass();
+        while (type != null) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                type = type.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot set " + name, e);
+            }
+        }
+        throw new IllegalArgumentException("No field " + name + " on " + target.getClass().getName());
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.benchmarks.fixtures;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-in for a Spring Data repository interface.
+ *
+ * Every call that would reach the database is counted. Methods without a registered answer return an empty value for their
+ * return type; {@code save}/{@code saveAll} echo their argument.
+ */
+public final class RepositoryStub<T> implements InvocationHandler {
+
+    private final Class<T> repositoryType;
+    private final CallCounter counter;
+    private final Map<String, Function<Object[], Object>> answers = new HashMap<>();
+
+    private RepositoryStub(Class<T> repositoryType, CallCounter counter) {
+        this.repositoryType = repositoryType;
+        this.counter = counter;
+    }
+
+    public static <T> RepositoryStub<T> of(Class<T> repositoryType, CallCounter counter) {
+        return new RepositoryStub<>(repositoryType, counter);
+    }
+
+    public RepositoryStub<T> answer(String methodName, Function<Object[], Object> answer) {
+        answers.put(methodName, answer);
+        return this;
+    }
+
+    public T proxy() {
+        return repositoryType.cast(Proxy.newProxyInstance(
+                repositoryType.getClassLoader(), new Class<?>[] {repositoryType}, this));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return repositoryType.getSimpleName() + "Stub";
+            }
+        }
+
+        // A reference is a lazy proxy and never reaches the database
+        if (!method.getName().equals("getReferenceById")) {
+            counter.increment();
+        }
+
+        Function<Object[], Object> answer = answers.get(method.getName());
+        if (answer != null) {
+            return answer.apply(args);
+        }
+        if (method.getName().equals("save") || method.getName().equals("saveAll")) {
+            return args[0];
+        }
+        return emptyValue(method.getReturnType());
+    }
+
+    private static Object emptyValue(Class<?> type) {
+        if (type == Optional.class) {
+            return Optional.empty();
+        }
+        if (type == List.class || type == Collection.class || type == Iterable.class) {
+            return List.of();
+        }
+        if (type == Set.class) {
+            return Set.of();
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.service;
+
+import com.ecommerce.benchmarks.fixtures.CallCounter;
+import com.ecommerce.benchmarks.fixtures.Fixtures;
+import com.ecommerce.entity.Cart;
+import com.ecommerce.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CartService#updateCartTotals}: per-item price selection, GST and shipping on carts of various sizes.
+ * Lives in the service package because the method is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CartTotalsBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int items;
+
+    @Param({"INDIVIDUAL", "BUSINESS"})
+    private User.CustomerType customerType;
+
+    private CartService cartService;
+    private Cart cart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cartService = Fixtures.construct(CartService.class, Map.of(), new CallCounter());
+        cart = Fixtures.cart(Fixtures.user(customerType), Fixtures.products(items));
+    }
+
+    @Benchmark
+    public BigDecimal updateCartTotals() {
+        cartService.updateCartTotals(cart);
+        return cart.getTotal();
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.service;
+
+import com.ecommerce.benchmarks.fixtures.CriteriaFixture;
+import com.ecommerce.dto.request.ProductSearchRequest;
+import com.ecommerce.entity.Product;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the product search {@link Specification} and turns it into a criteria query against a
+ * Hibernate metamodel bootstrapped without a database connection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProductSearchSpecificationBenchmark {
+
+    @Param({"term", "all-filters"})
+    private String filters;
+
+    private CriteriaFixture criteria;
+    private ProductSearchRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        criteria = new CriteriaFixture();
+
+        request = new ProductSearchRequest();
+        request.setSearchTerm("impact drill");
+        if (filters.equals("all-filters")) {
+            request.setCategoryId(1L);
+            request.setMinPrice(new BigDecimal("100"));
+            request.setMaxPrice(new BigDecimal("5000"));
+            request.setInStock(true);
+            request.setBrand("Bosch");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        criteria.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<Product> buildSearchQuery() {
+        Specification<Product> spec = ProductService.buildSearchSpecification(request, true);
+
+        CriteriaBuilder criteriaBuilder = criteria.getCriteriaBuilder();
+        CriteriaQuery<Product> query = criteriaBuilder.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        query.where(spec.toPredicate(root, query, criteriaBuilder));
+        return query;
+    }
+}
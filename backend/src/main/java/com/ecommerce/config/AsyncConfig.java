@@ -1,24 +1,109 @@
 package com.ecommerce.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
+    // @Async work such as SMS; unbounded virtual threads in VIRTUAL mode
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(ExecutionMode executionMode) {
+        return executionMode.executor("EcommerceAsync-", () -> {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(5);
+            executor.setMaxPoolSize(10);
+            executor.setQueueCapacity(500);
+            executor.setThreadNamePrefix("EcommerceAsync-");
+            executor.initialize();
+            return executor;
+        });
+    }
+
+    /**
+     * Runs the chunk scans of finance reports. Each task holds a database connection,
+     * so keep the parallelism well below the connection pool size.
+     */
+    @Bean(name = "reportExecutor")
+    public Executor reportExecutor(@Value("${app.reports.parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(1000);
+        // A full queue makes the requesting thread scan the chunk itself
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("EcommerceReport-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Renders invoice PDFs in the background. When the queue is full the task is dropped
+     * and the PDF is rendered on its first download instead.
+     */
+    @Bean(name = "invoiceRenderExecutor")
+    public Executor invoiceRenderExecutor(@Value("${app.invoices.render-threads:2}") int threads,
+            @Value("${app.invoices.render-queue-capacity:500}") int queueCapacity) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(500);
-        executor.setThreadNamePrefix("EcommerceAsync-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("EcommerceInvoice-");
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    // Month-end invoice runs; each run occupies one thread until it finishes
+    @Bean(name = "invoiceRunExecutor")
+    public Executor invoiceRunExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("EcommerceInvoiceRun-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes streamed responses such as report, invoice and user data exports. Each task holds a connection
+     * or file for the whole download, so the pool caps concurrent downloads in either execution mode; a
+     * download that finds the pool and queue full is rejected with 503.
+     */
+    @Bean(name = "streamingExecutor")
+    public AsyncTaskExecutor streamingExecutor(@Value("${app.exports.threads:4}") int threads,
+            @Value("${app.exports.queue-capacity:8}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("EcommerceStream-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Sends queued email. Each task holds one SMTP connection for a batch of messages; the dispatcher
+     * never submits more batches than {@code app.mail.threads}, in either execution mode.
+     */
+    @Bean(name = "mailExecutor")
+    public Executor mailExecutor(ExecutionMode executionMode, @Value("${app.mail.threads:2}") int threads) {
+        return executionMode.executor("EcommerceMail-", () -> {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(threads);
+            executor.setMaxPoolSize(threads);
+            executor.setQueueCapacity(threads);
+            executor.setThreadNamePrefix("EcommerceMail-");
+            executor.initialize();
+            return executor;
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.ecommerce.config;
+
+import com.ecommerce.service.CacheService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+@Configuration
+@EnableCaching
+@Slf4j
+public class CacheConfig {
+
+    private static final String EVICTION_CHANNEL = "ecommerce:cache-evictions";
+    private static final List<String> CACHE_NAMES = List.of(CacheService.PRODUCTS_CACHE);
+
+    @Value("${app.cache.local.max-size:10000}")
+    private long localMaxSize;
+
+    @Value("${app.cache.local.ttl:10m}")
+    private Duration localTtl;
+
+    @Value("${app.cache.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    @Value("${app.cache.redis.ttl:1h}")
+    private Duration redisTtl;
+
+    @Bean
+    public CacheManager cacheManager(MeterRegistry meterRegistry,
+            ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        CaffeineCacheManager localCacheManager = new CaffeineCacheManager();
+        localCacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats());
+        localCacheManager.setAllowNullValues(false);
+        localCacheManager.setCacheNames(CACHE_NAMES);
+
+        // Exposes cache.gets{result=hit|miss}, cache.evictions and cache.size for the local tier
+        for (String name : CACHE_NAMES) {
+            CaffeineCache cache = (CaffeineCache) localCacheManager.getCache(name);
+            CaffeineCacheMetrics.monitor(meterRegistry, cache.getNativeCache(), name);
+        }
+
+        CacheManager cacheManager = localCacheManager;
+
+        if (redisEnabled) {
+            RedisConnectionFactory connectionFactory = redisConnectionFactory.getObject();
+
+            RedisCacheManager remoteCacheManager = RedisCacheManager.builder(connectionFactory)
+                    .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                            .entryTtl(redisTtl)
+                            .disableCachingNullValues()
+                            .serializeValuesWith(RedisSerializationContext.SerializationPair
+                                    .fromSerializer(new GenericJackson2JsonRedisSerializer())))
+                    .initialCacheNames(Set.copyOf(CACHE_NAMES))
+                    .build();
+            remoteCacheManager.afterPropertiesSet();
+
+            cacheManager = new TwoLevelCacheManager(localCacheManager, remoteCacheManager,
+                    new StringRedisTemplate(connectionFactory), EVICTION_CHANNEL, meterRegistry);
+
+            log.info("Product cache running with local Caffeine tier and Redis tier");
+        }
+
+        // Puts and evictions issued inside a transaction are applied only after it commits,
+        // so a concurrent reader cannot re-populate the cache with pre-commit data
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "true")
+    public RedisMessageListenerContainer cacheEvictionListenerContainer(
+            RedisConnectionFactory connectionFactory, CacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> evictLocally(cacheManager, new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(EVICTION_CHANNEL));
+        return container;
+    }
+
+    private void evictLocally(CacheManager cacheManager, String payload) {
+        int separator = payload.indexOf("::");
+        if (separator < 0) {
+            return;
+        }
+
+        Cache cache = cacheManager.getCache(payload.substring(0, separator));
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.evictLocal(payload.substring(separator + 2));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.config;
+
+import com.ecommerce.utils.VirtualThreads;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Which threads run request handling, {@code @Async} tasks and the mail sender, from
+ * {@code app.execution.mode}. VIRTUAL falls back to PLATFORM when the JDK has no virtual threads.
+ */
+@Component
+@Slf4j
+public class ExecutionMode {
+
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    @Getter
+    private final Mode mode;
+
+    public ExecutionMode(@Value("${app.execution.mode:platform}") Mode requested) {
+        if (requested == Mode.VIRTUAL && !VirtualThreads.isSupported()) {
+            log.warn("app.execution.mode=virtual needs Java 21 or later, running on {}; using platform threads",
+                    Runtime.version());
+            this.mode = Mode.PLATFORM;
+        } else {
+            this.mode = requested;
+        }
+        log.info("Execution mode: {}", mode);
+    }
+
+    public boolean isVirtual() {
+        return mode == Mode.VIRTUAL;
+    }
+
+    /**
+     * A virtual thread per task in VIRTUAL mode, otherwise the pool built by {@code platformExecutor}.
+     */
+    public Executor executor(String threadNamePrefix, Supplier<Executor> platformExecutor) {
+        return isVirtual() ? VirtualThreads.newThreadPerTaskExecutor(threadNamePrefix) : platformExecutor.get();
+    }
+}
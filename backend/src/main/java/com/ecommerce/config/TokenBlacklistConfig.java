@@ -0,0 +1,57 @@
+package com.ecommerce.config;
+
+import com.ecommerce.security.InMemoryTokenBlacklist;
+import com.ecommerce.security.RedisTokenBlacklist;
+import com.ecommerce.security.TokenBlacklist;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+@Slf4j
+public class TokenBlacklistConfig {
+
+    private static final String REVOCATION_CHANNEL = "ecommerce:token-revocations";
+
+    @Value("${security.jwt.blacklist.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    @Bean
+    public TokenBlacklist tokenBlacklist(MeterRegistry meterRegistry,
+            ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        InMemoryTokenBlacklist local = new InMemoryTokenBlacklist(meterRegistry);
+        if (!redisEnabled) {
+            return local;
+        }
+
+        RedisTokenBlacklist shared = new RedisTokenBlacklist(local,
+                new StringRedisTemplate(redisConnectionFactory.getObject()), REVOCATION_CHANNEL);
+        shared.loadExisting();
+
+        log.info("Token blacklist shared through Redis");
+        return shared;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "security.jwt.blacklist.redis.enabled", havingValue = "true")
+    public RedisMessageListenerContainer tokenRevocationListenerContainer(
+            RedisConnectionFactory connectionFactory, TokenBlacklist tokenBlacklist) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> ((RedisTokenBlacklist) tokenBlacklist)
+                        .onRevocation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(REVOCATION_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,168 @@
+package com.ecommerce.config;
+
+import com.ecommerce.utils.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Cache backed by a local Caffeine tier with a shared Redis tier behind it.
+ * Reads fall through local -> Redis -> loader and promote hits into the local tier.
+ * Redis failures are logged and treated as misses so a Redis outage never fails a request.
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    private final Cache local;
+    private final Cache remote;
+    private final Consumer<Object> evictionPublisher;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter remoteErrors;
+    private final SingleFlight<Object, Object> loads = new SingleFlight<>();
+
+    public TwoLevelCache(Cache local, Cache remote, Consumer<Object> evictionPublisher, MeterRegistry meterRegistry) {
+        this.local = local;
+        this.remote = remote;
+        this.evictionPublisher = evictionPublisher;
+        this.remoteHits = Counter.builder("cache.remote.gets")
+                .tag("cache", local.getName())
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.remoteMisses = Counter.builder("cache.remote.gets")
+                .tag("cache", local.getName())
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.remoteErrors = Counter.builder("cache.remote.errors")
+                .tag("cache", local.getName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value != null) {
+            return value;
+        }
+
+        value = getRemote(key);
+        if (value != null) {
+            local.put(key, value.get());
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return null;
+        }
+
+        Object stored = value.get();
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = get(key);
+        if (value != null) {
+            return (T) value.get();
+        }
+
+        // Concurrent loads of the same key on this node share one call to the loader
+        return (T) loads.load(key, () -> {
+            T loaded;
+            try {
+                loaded = valueLoader.call();
+            } catch (Exception ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex);
+            }
+            if (loaded != null) {
+                local.put(key, loaded);
+            }
+            putRemote(key, loaded);
+            return loaded;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key, value);
+        putRemote(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.evict(key);
+        try {
+            remote.evict(key);
+            evictionPublisher.accept(key);
+        } catch (RuntimeException ex) {
+            remoteErrors.increment();
+            log.warn("Failed to evict key {} from remote cache {}: {}", key, getName(), ex.getMessage());
+        }
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        try {
+            remote.clear();
+        } catch (RuntimeException ex) {
+            remoteErrors.increment();
+            log.warn("Failed to clear remote cache {}: {}", getName(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Drops a key from this node's local tier only; used when another node announces an eviction.
+     */
+    public void evictLocal(Object key) {
+        local.evict(key);
+    }
+
+    private ValueWrapper getRemote(Object key) {
+        try {
+            ValueWrapper value = remote.get(key);
+            if (value != null) {
+                remoteHits.increment();
+                return new SimpleValueWrapper(value.get());
+            }
+            remoteMisses.increment();
+        } catch (RuntimeException ex) {
+            remoteErrors.increment();
+            log.warn("Remote cache {} unavailable: {}", getName(), ex.getMessage());
+        }
+        return null;
+    }
+
+    private void putRemote(Object key, Object value) {
+        try {
+            remote.put(key, value);
+        } catch (RuntimeException ex) {
+            remoteErrors.increment();
+            log.warn("Failed to write key {} to remote cache {}: {}", key, getName(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Combines a local and a remote {@link CacheManager} into {@link TwoLevelCache}s.
+ * Evictions are broadcast on a Redis channel so other nodes drop their local copies.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager localCacheManager;
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final String evictionChannel;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager localCacheManager, CacheManager remoteCacheManager,
+            StringRedisTemplate redisTemplate, String evictionChannel, MeterRegistry meterRegistry) {
+        this.localCacheManager = localCacheManager;
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.evictionChannel = evictionChannel;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return localCacheManager.getCacheNames();
+    }
+
+    private Cache createCache(String name) {
+        Cache local = localCacheManager.getCache(name);
+        Cache remote = remoteCacheManager.getCache(name);
+        if (local == null || remote == null) {
+            throw new IllegalArgumentException("Unknown cache: " + name);
+        }
+
+        return new TwoLevelCache(local, remote,
+                key -> redisTemplate.convertAndSend(evictionChannel, name + "::" + key),
+                meterRegistry);
+    }
+}
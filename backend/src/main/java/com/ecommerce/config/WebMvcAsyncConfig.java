@@ -0,0 +1,27 @@
+package com.ecommerce.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Runs StreamingResponseBody and Callable handlers on the bounded streaming executor. Without it MVC falls
+ * back to an unbounded SimpleAsyncTaskExecutor, since the executors in {@link AsyncConfig} keep Boot from
+ * creating its applicationTaskExecutor.
+ */
+@Configuration
+public class WebMvcAsyncConfig implements WebMvcConfigurer {
+
+    private final AsyncTaskExecutor streamingExecutor;
+
+    public WebMvcAsyncConfig(@Qualifier("streamingExecutor") AsyncTaskExecutor streamingExecutor) {
+        this.streamingExecutor = streamingExecutor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.config;
+
+import com.ecommerce.utils.VirtualThreads;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class WebServerConfig {
+
+    /**
+     * In VIRTUAL mode Tomcat runs every request on its own virtual thread instead of its worker pool,
+     * so {@code server.tomcat.threads.max} no longer caps concurrent requests; the connection pool does.
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> executionModeProtocolHandlerCustomizer(ExecutionMode executionMode) {
+        return protocolHandler -> {
+            if (executionMode.isVirtual()) {
+                protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("EcommerceHttp-"));
+            }
+        };
+    }
+}
@@ -5,6 +5,7 @@ import com.ecommerce.dto.request.*;
 import com.ecommerce.dto.response.*;
 import com.ecommerce.entity.User;
 import com.ecommerce.service.*;
+import com.ecommerce.utils.AppConstants;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -80,6 +81,18 @@ public class AdminController {
         return ResponseEntity.ok(salesData);
     }
 
+    @PostMapping("/dashboard/sales/rebuild")
+    @Operation(summary = "Rebuild sales rollup", description = "Recompute the daily sales rollup from orders for a date range")
+    public ResponseEntity<MessageResponse> rebuildSalesRollup(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        log.info("Rebuilding sales rollup from {} to {}", startDate, endDate);
+
+        int rows = adminService.rebuildSalesRollup(startDate, endDate);
+        return ResponseEntity.ok(new MessageResponse("Sales rollup rebuilt: " + rows + " rows"));
+    }
+
     @GetMapping("/dashboard/category-sales")
     @Operation(summary = "Get category sales", description = "Get sales by category")
     public ResponseEntity<List<Map<String, Object>>> getCategorySales() {
@@ -221,6 +234,19 @@ public class AdminController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/orders/cursor")
+    @Operation(summary = "Scroll all orders", description = "Get all orders, newest first, using a continuation cursor")
+    public ResponseEntity<CursorPageResponse<OrderResponse>> scrollAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String status) {
+
+        CursorPageResponse<OrderResponse> orders = orderService.getAllOrders(status, cursor,
+                Math.min(Math.max(size, 1), AppConstants.MAX_CURSOR_PAGE_SIZE));
+
+        return ResponseEntity.ok(orders);
+    }
+
     @PatchMapping("/orders/{orderId}/status")
     @Operation(summary = "Update order status", description = "Update the status of an order")
     public ResponseEntity<OrderResponse> updateOrderStatus(
@@ -348,6 +374,18 @@ public class AdminController {
         return ResponseEntity.ok(inventory);
     }
 
+    @GetMapping("/inventory/cursor")
+    @Operation(summary = "Scroll inventory", description = "Get inventory status page by page using a continuation cursor")
+    public ResponseEntity<CursorPageResponse<InventoryResponse>> scrollInventory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPageResponse<InventoryResponse> inventory = inventoryService.getInventory(cursor,
+                Math.min(Math.max(size, 1), AppConstants.MAX_CURSOR_PAGE_SIZE));
+
+        return ResponseEntity.ok(inventory);
+    }
+
     @GetMapping("/inventory/stats")
     @Operation(summary = "Get inventory statistics", description = "Get inventory statistics")
     public ResponseEntity<InventoryStatsResponse> getInventoryStats() {
@@ -7,6 +7,7 @@ import com.ecommerce.entity.User;
 import com.ecommerce.security.JwtTokenProvider;
 import com.ecommerce.service.AuthService;
 import com.ecommerce.service.UserService;
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -158,8 +159,9 @@ public class AuthController {
         try {
             String refreshToken = request.getRefreshToken();
             
-            if (tokenProvider.validateToken(refreshToken)) {
-                String email = tokenProvider.getEmailFromToken(refreshToken);
+            Claims claims = tokenProvider.parseValidatedClaims(refreshToken).orElse(null);
+            if (claims != null) {
+                String email = claims.getSubject();
                 User user = userService.findByEmail(email)
                     .orElseThrow(() -> new RuntimeException("User not found"));
                 
@@ -6,22 +6,24 @@ import com.ecommerce.dto.response.*;
 import com.ecommerce.entity.Invoice;
 import com.ecommerce.entity.User;
 import com.ecommerce.service.*;
+import com.ecommerce.service.report.ReportExport;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.ecommerce.service.FinanceService;
 import com.ecommerce.service.InvoiceService;
 import com.ecommerce.service.ReportService;
@@ -29,6 +31,7 @@ import com.ecommerce.service.TaxService;
 import com.ecommerce.service.AuditService;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
@@ -43,6 +46,7 @@ public class FinanceController {
 
     private final FinanceService financeService;
     private final InvoiceService invoiceService;
+    private final InvoiceRunService invoiceRunService;
     private final ReportService reportService;
     private final TaxService taxService;
     private final AuditService auditService;
@@ -193,19 +197,57 @@ public class FinanceController {
 
     @GetMapping("/invoices/{invoiceId}/download")
     @Operation(summary = "Download invoice PDF", description = "Download invoice as PDF")
-    public ResponseEntity<ByteArrayResource> downloadInvoicePdf(@PathVariable Long invoiceId) {
+    public ResponseEntity<StreamingResponseBody> downloadInvoicePdf(@PathVariable Long invoiceId) {
         log.info("Downloading invoice PDF for: {}", invoiceId);
 
-        byte[] pdfData = invoiceService.generateInvoicePdf(invoiceId);
+        InvoiceService.InvoicePdf invoicePdf = invoiceService.getInvoicePdf(invoiceId);
 
-        ByteArrayResource resource = new ByteArrayResource(pdfData);
+        StreamingResponseBody body = out -> invoiceService.writeInvoicePdf(invoicePdf, out);
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION,
                         "attachment; filename=invoice_" + invoiceId + ".pdf")
                 .contentType(MediaType.APPLICATION_PDF)
-                .contentLength(pdfData.length)
-                .body(resource);
+                .contentLength(invoicePdf.getSize())
+                .body(body);
+    }
+
+    // Month-end invoice runs for business customers
+    @PostMapping("/invoice-runs")
+    @Operation(summary = "Start invoice run", description = "Invoice and email a month's business orders in the background")
+    public ResponseEntity<InvoiceRunResponse> startInvoiceRun(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            Authentication authentication) {
+
+        User user = (User) authentication.getPrincipal();
+        log.info("Starting invoice run for {} by user: {}", month, user.getEmail());
+
+        InvoiceRunResponse run = invoiceRunService.startRun(month);
+
+        auditService.logAction("INVOICE_RUN_STARTED",
+                String.format("Invoice run %d started for %s", run.getId(), month), user);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(run);
+    }
+
+    @GetMapping("/invoice-runs")
+    @Operation(summary = "Get invoice runs", description = "Get the most recent invoice runs")
+    public ResponseEntity<List<InvoiceRunResponse>> getInvoiceRuns() {
+        return ResponseEntity.ok(invoiceRunService.getRecentRuns());
+    }
+
+    @GetMapping("/invoice-runs/{runId}")
+    @Operation(summary = "Get invoice run", description = "Get progress and throughput of an invoice run")
+    public ResponseEntity<InvoiceRunResponse> getInvoiceRun(@PathVariable Long runId) {
+        return ResponseEntity.ok(invoiceRunService.getRun(runId));
+    }
+
+    @PostMapping("/invoice-runs/{runId}/resume")
+    @Operation(summary = "Resume invoice run", description = "Continue a failed invoice run from its checkpoint")
+    public ResponseEntity<InvoiceRunResponse> resumeInvoiceRun(@PathVariable Long runId) {
+        log.info("Resuming invoice run {}", runId);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(invoiceRunService.resumeRun(runId));
     }
 
     @GetMapping("/invoices/pending")
@@ -295,31 +337,47 @@ public class FinanceController {
         return ResponseEntity.ok(report);
     }
 
+    @PostMapping("/reports/customer-revenue/rebuild")
+    @Operation(summary = "Rebuild customer revenue", description = "Recompute revenue per customer from all orders")
+    public ResponseEntity<MessageResponse> rebuildCustomerRevenue() {
+        log.info("Rebuilding customer revenue");
+
+        int customers = reportService.rebuildCustomerRevenue();
+        return ResponseEntity.ok(new MessageResponse("Customer revenue rebuilt: " + customers + " customers"));
+    }
+
     @PostMapping("/reports/export")
-    @Operation(summary = "Export financial report", description = "Export report in various formats")
-    public ResponseEntity<ByteArrayResource> exportReport(
+    @Operation(summary = "Export financial report", description = "Stream a report as CSV or XLSX")
+    public ResponseEntity<StreamingResponseBody> exportReport(
             @Valid @RequestBody ExportReportRequest request) {
 
         log.info("Exporting {} report in {} format", request.getReportType(), request.getFormat());
 
-        byte[] reportData = reportService.exportReport(request);
+        ReportExport export = reportService.startExport(request);
 
-        String filename = String.format("%s_%s.%s",
-                request.getReportType(),
-                LocalDate.now(),
-                request.getFormat().toLowerCase());
+        StreamingResponseBody body = out -> reportService.exportReport(export.getId(), out);
 
-        ByteArrayResource resource = new ByteArrayResource(reportData);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + export.getFilename())
+                .header("X-Export-Id", export.getId())
+                .contentType(MediaType.parseMediaType(export.getFormat().getContentType()))
+                .body(body);
+    }
+
+    @GetMapping("/reports/export/{exportId}")
+    @Operation(summary = "Get export progress", description = "Get the status and row count of a report export")
+    public ResponseEntity<ExportProgressResponse> getExportProgress(@PathVariable String exportId) {
+        return ResponseEntity.ok(reportService.getExportProgress(exportId));
+    }
 
-        MediaType mediaType = request.getFormat().equals("PDF")
-                ? MediaType.APPLICATION_PDF
-                : MediaType.APPLICATION_OCTET_STREAM;
+    @DeleteMapping("/reports/export/{exportId}")
+    @Operation(summary = "Cancel export", description = "Stop a running report export")
+    public ResponseEntity<Map<String, String>> cancelExport(@PathVariable String exportId) {
+        log.info("Cancelling report export {}", exportId);
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(mediaType)
-                .contentLength(reportData.length)
-                .body(resource);
+        reportService.cancelExport(exportId);
+
+        return ResponseEntity.ok(Map.of("message", "Export cancellation requested"));
     }
 
     // Payment reconciliation
@@ -3,17 +3,19 @@ package com.ecommerce.controller;
 
 import com.ecommerce.dto.request.CreateOrderRequest;
 import com.ecommerce.dto.request.UpdateOrderStatusRequest;
+import com.ecommerce.dto.response.CursorPageResponse;
 import com.ecommerce.dto.response.OrderResponse;
 import com.ecommerce.dto.response.OrderSummaryResponse;
 import com.ecommerce.entity.Order;
 import com.ecommerce.entity.User;
+import com.ecommerce.service.InvoiceService;
 import com.ecommerce.service.OrderService;
+import com.ecommerce.utils.AppConstants;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +27,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -38,6 +41,7 @@ import java.util.Map;
 public class OrderController {
 
     private final OrderService orderService;
+    private final InvoiceService invoiceService;
 
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
@@ -79,6 +83,23 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/my/cursor")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
+    @Operation(summary = "Scroll user orders", description = "Get the authenticated user's orders, newest first, using a continuation cursor")
+    public ResponseEntity<CursorPageResponse<OrderResponse>> scrollMyOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String status,
+            Authentication authentication) {
+
+        User user = (User) authentication.getPrincipal();
+
+        CursorPageResponse<OrderResponse> orders = orderService.getUserOrders(user.getId(), status, cursor,
+                Math.min(Math.max(size, 1), AppConstants.MAX_CURSOR_PAGE_SIZE));
+
+        return ResponseEntity.ok(orders);
+    }
+
     @GetMapping("/{orderId}")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
     @Operation(summary = "Get order details", description = "Get detailed information about an order")
@@ -130,22 +151,22 @@ public class OrderController {
     @GetMapping("/{orderId}/invoice")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
     @Operation(summary = "Download invoice", description = "Download order invoice as PDF")
-    public ResponseEntity<ByteArrayResource> downloadInvoice(
+    public ResponseEntity<StreamingResponseBody> downloadInvoice(
             @PathVariable Long orderId,
             Authentication authentication) {
 
         User user = (User) authentication.getPrincipal();
         log.info("Downloading invoice for order: {}", orderId);
 
-        byte[] invoicePdf = orderService.generateInvoicePdf(orderId, user);
+        InvoiceService.InvoicePdf invoicePdf = orderService.getInvoicePdf(orderId, user);
 
-        ByteArrayResource resource = new ByteArrayResource(invoicePdf);
+        StreamingResponseBody body = out -> invoiceService.writeInvoicePdf(invoicePdf, out);
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoice_" + orderId + ".pdf")
                 .contentType(MediaType.APPLICATION_PDF)
-                .contentLength(invoicePdf.length)
-                .body(resource);
+                .contentLength(invoicePdf.getSize())
+                .body(body);
     }
 
     @PostMapping("/{orderId}/return")
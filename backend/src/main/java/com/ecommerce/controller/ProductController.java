@@ -2,10 +2,12 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.request.ProductSearchRequest;
+import com.ecommerce.dto.response.CursorPageResponse;
 import com.ecommerce.dto.response.ProductResponse;
 import com.ecommerce.entity.Product;
 import com.ecommerce.entity.User;
 import com.ecommerce.service.ProductService;
+import com.ecommerce.utils.AppConstants;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -18,6 +20,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -65,6 +68,27 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Scroll products", description = "Get products page by page using a continuation cursor")
+    public ResponseEntity<CursorPageResponse<ProductResponse>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Boolean inStock,
+            Authentication authentication) {
+
+        User.CustomerType customerType = null;
+        if (authentication != null && authentication.isAuthenticated()) {
+            User user = (User) authentication.getPrincipal();
+            customerType = user.getCustomerType();
+        }
+
+        CursorPageResponse<ProductResponse> products = productService.getAllProducts(
+                cursor, Math.min(Math.max(size, 1), AppConstants.MAX_CURSOR_PAGE_SIZE), category, inStock, customerType);
+
+        return ResponseEntity.ok(products);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Get product details by ID")
     public ResponseEntity<ProductResponse> getProductById(
@@ -80,12 +104,17 @@ public class ProductController {
         }
 
         ProductResponse product = productService.getProductById(id, customerType);
-        
+
+        // Counted outside the cached lookup so cache hits are still recorded as views
+        productService.recordProductView(id, null);
+
         return ResponseEntity.ok(product);
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search products", description = "Search products by various criteria")
+    @Operation(summary = "Search products", description = "Search products by various criteria. A search term " +
+            "matches the most relevant products up to app.search.max-hits; results are ordered by relevance " +
+            "unless sortBy is given")
     public ResponseEntity<Page<ProductResponse>> searchProducts(
             @Valid ProductSearchRequest searchRequest,
             @RequestParam(defaultValue = "0") int page,
@@ -95,6 +124,12 @@ public class ProductController {
         log.info("Searching products with criteria: {}", searchRequest);
 
         Pageable pageable = PageRequest.of(page, size);
+        if (StringUtils.hasText(searchRequest.getSortBy())) {
+            Sort.Direction direction = "DESC".equalsIgnoreCase(searchRequest.getSortDirection())
+                    ? Sort.Direction.DESC
+                    : Sort.Direction.ASC;
+            pageable = PageRequest.of(page, size, Sort.by(direction, searchRequest.getSortBy()));
+        }
 
         User.CustomerType customerType = User.CustomerType.INDIVIDUAL;
         if (authentication != null && authentication.isAuthenticated()) {
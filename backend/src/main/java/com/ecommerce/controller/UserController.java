@@ -3,7 +3,6 @@ package com.ecommerce.controller;
 // src/main/java/com/ecommerce/controller/UserController.java
 import org.springframework.http.MediaType;
 import org.springframework.http.HttpHeaders;
-import org.springframework.core.io.ByteArrayResource;
 import com.ecommerce.dto.request.*;
 import com.ecommerce.dto.response.*;
 import com.ecommerce.entity.User;
@@ -20,7 +19,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 import java.util.Map;
 
@@ -505,21 +504,18 @@ public class UserController {
     // Export user data (GDPR compliance)
     @GetMapping("/data-export")
     @Operation(summary = "Export user data", description = "Export all user data (GDPR)")
-    public ResponseEntity<ByteArrayResource> exportUserData(
+    public ResponseEntity<StreamingResponseBody> exportUserData(
             Authentication authentication) {
 
         User user = (User) authentication.getPrincipal();
         log.info("Data export requested by user: {}", user.getEmail());
 
-        byte[] userData = userService.exportUserData(user.getId());
-
-        ByteArrayResource resource = new ByteArrayResource(userData);
+        StreamingResponseBody body = out -> userService.exportUserData(user.getId(), out);
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION,
                         "attachment; filename=user_data_" + user.getId() + ".json")
                 .contentType(MediaType.APPLICATION_JSON)
-                .contentLength(userData.length)
-                .body(resource);
+                .body(body);
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.ecommerce.dto.response;
+
+import com.ecommerce.utils.PageCursor;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back to fetch the following page;
+ * it is null on the last page. No total count is computed.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code size + 1}; the extra row only signals
+     * that another page exists and is not returned.
+     */
+    public static <E, T> CursorPageResponse<T> of(List<E> rows, int size, Function<E, T> mapper,
+            Function<E, PageCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPageResponse<>(page.stream().map(mapper).toList(), nextCursor, hasNext);
+    }
+}
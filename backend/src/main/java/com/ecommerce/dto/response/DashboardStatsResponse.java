@@ -2,6 +2,7 @@ package com.ecommerce.dto.response;
 
 import lombok.Data;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 public class DashboardStatsResponse {
@@ -20,4 +21,5 @@ public class DashboardStatsResponse {
     private Long completedOrders;
     private BigDecimal todayRevenue;
     private Long todayOrders;
+    private LocalDateTime asOf;
 }
\ No newline at end of file
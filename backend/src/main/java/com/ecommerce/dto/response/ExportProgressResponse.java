@@ -0,0 +1,15 @@
+package com.ecommerce.dto.response;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class ExportProgressResponse {
+    private String exportId;
+    private String reportType;
+    private String format;
+    private String status; // PENDING, RUNNING, COMPLETED, CANCELLED, FAILED
+    private long rowsWritten;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.dto.response;
+
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class InvoiceRunResponse {
+    private Long id;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private String status; // RUNNING, COMPLETED, FAILED
+    private Long lastOrderId;
+    private Integer invoicesCreated;
+    private Integer invoicesSent;
+    private Double invoicesPerSecond;
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -2,6 +2,9 @@ package com.ecommerce.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.TableGenerator;
 import java.time.LocalDateTime;
 
 @Entity
@@ -10,8 +13,17 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class CouponUsage {
+    // Same allocator as PooledIdEntity; the segment is coupon_usages
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = PooledIdEntity.ID_GENERATOR)
+    @GenericGenerator(name = PooledIdEntity.ID_GENERATOR, type = TableGenerator.class, parameters = {
+            @Parameter(name = TableGenerator.TABLE_PARAM, value = "id_sequences"),
+            @Parameter(name = TableGenerator.SEGMENT_COLUMN_PARAM, value = "sequence_name"),
+            @Parameter(name = TableGenerator.VALUE_COLUMN_PARAM, value = "next_val"),
+            @Parameter(name = TableGenerator.CONFIG_PREFER_SEGMENT_PER_ENTITY, value = "true"),
+            @Parameter(name = TableGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = TableGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     private Long id;
 
     private Long couponId;
@@ -9,11 +9,21 @@ import java.util.List;
 
 @Entity
 @Table(name = "orders")
+// What OrderMapper.toResponse reads; product images and user roles are left to batch fetching
+@NamedEntityGraph(name = Order.DETAILS_GRAPH, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("shippingAddress"),
+        @NamedAttributeNode("billingAddress"),
+        @NamedAttributeNode("invoice"),
+        @NamedAttributeNode(value = "orderItems", subgraph = "items")
+}, subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")))
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
 @AllArgsConstructor
-public class Order extends BaseEntity {
+public class Order extends PooledIdEntity {
+
+    public static final String DETAILS_GRAPH = "Order.details";
 
     @Column(unique = true, nullable = false)
     private String orderNumber;
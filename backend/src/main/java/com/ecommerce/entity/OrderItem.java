@@ -10,7 +10,7 @@ import java.math.BigDecimal;
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
 @AllArgsConstructor
-public class OrderItem extends BaseEntity {
+public class OrderItem extends PooledIdEntity {
 
     @ManyToOne
     @JoinColumn(name = "order_id", nullable = false)
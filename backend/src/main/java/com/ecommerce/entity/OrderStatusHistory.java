@@ -11,7 +11,7 @@ import lombok.*;
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
 @AllArgsConstructor
-public class OrderStatusHistory extends BaseEntity {
+public class OrderStatusHistory extends PooledIdEntity {
 
     @ManyToOne
     @JoinColumn(name = "order_id", nullable = false)
@@ -0,0 +1,52 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type eventType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false, unique = true)
+    private String idempotencyKey;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime processedAt;
+
+    // One type per side effect, so a failing channel is retried without repeating the others
+    public enum Type {
+        ORDER_INVOICE, ORDER_LOYALTY_POINTS, ORDER_EMAIL, ORDER_SMS, ORDER_NOTIFICATION, ORDER_SALES_ROLLUP,
+        ORDER_CUSTOMER_REVENUE
+    }
+
+    public enum Status {
+        PENDING, PROCESSED, FAILED
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.id.enhanced.TableGenerator;
+
+import java.time.LocalDateTime;
+
+/**
+ * Base class for high-volume tables. Ids come from blocks reserved in {@code id_sequences} (one row per
+ * table) instead of AUTO_INCREMENT, so Hibernate knows them before the INSERT and can batch the inserts.
+ */
+@MappedSuperclass
+@Data
+@SuperBuilder
+@NoArgsConstructor
+public abstract class PooledIdEntity {
+
+    public static final String ID_GENERATOR = "pooled-table-id";
+
+    @Id
+    @GeneratedValue(generator = ID_GENERATOR)
+    @GenericGenerator(name = ID_GENERATOR, type = TableGenerator.class, parameters = {
+            @Parameter(name = TableGenerator.TABLE_PARAM, value = "id_sequences"),
+            @Parameter(name = TableGenerator.SEGMENT_COLUMN_PARAM, value = "sequence_name"),
+            @Parameter(name = TableGenerator.VALUE_COLUMN_PARAM, value = "next_val"),
+            // The segment is the entity's table name
+            @Parameter(name = TableGenerator.CONFIG_PREFER_SEGMENT_PER_ENTITY, value = "true"),
+            @Parameter(name = TableGenerator.INCREMENT_PARAM, value = "50"),
+            // next_val holds the first id of the next free block
+            @Parameter(name = TableGenerator.OPT_PARAM, value = "pooled-lo")
+    })
+    private Long id;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
@@ -41,6 +41,11 @@ private BigDecimal businessPrice;
 private Integer stockQuantity;
 private Integer minStockLevel;
 
+// Held by active stock reservations; only changed through guarded updates in ProductStockRepository
+@Column(insertable = false, updatable = false)
+@Builder.Default
+private Integer reservedQuantity = 0;
+
 private Boolean active = true;
 private Boolean gstApplicable = true;
 private BigDecimal gstRate;
@@ -70,4 +75,11 @@ private User createdBy;
 @JoinColumn(name = "updated_by")
 private User updatedBy;
 
-}
\ No newline at end of file
+@Transient
+public int getAvailableQuantity() {
+    int onHand = stockQuantity != null ? stockQuantity : 0;
+    int reserved = reservedQuantity != null ? reservedQuantity : 0;
+    return Math.max(onHand - reserved, 0);
+}
+
+}
@@ -59,6 +59,33 @@ public class User extends BaseEntity implements UserDetails {
         INDIVIDUAL, BUSINESS
     }
 
+    /**
+     * A detached copy with its own roles set; the roles themselves are shared.
+     */
+    public User copy() {
+        return User.builder()
+                .id(getId())
+                .createdAt(getCreatedAt())
+                .updatedAt(getUpdatedAt())
+                .email(email)
+                .password(password)
+                .firstName(firstName)
+                .lastName(lastName)
+                .phoneNumber(phoneNumber)
+                .avatarUrl(avatarUrl)
+                .customerType(customerType)
+                .companyName(companyName)
+                .gstNumber(gstNumber)
+                .roles(new HashSet<>(roles))
+                .active(active)
+                .emailVerified(emailVerified)
+                .lastLoginAt(lastLoginAt)
+                .deletionRequested(deletionRequested)
+                .deletionRequestedAt(deletionRequestedAt)
+                .referralCode(referralCode)
+                .build();
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return roles.stream()
@@ -0,0 +1,7 @@
+package com.ecommerce.exception;
+
+public class InvalidInvoiceRunException extends RuntimeException {
+    public InvalidInvoiceRunException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.exception;
+
+public class InvalidReportRequestException extends RuntimeException {
+    public InvalidReportRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.exception;
+
+public class RollupRebuildInProgressException extends RuntimeException {
+    public RollupRebuildInProgressException(String message) {
+        super(message);
+    }
+}
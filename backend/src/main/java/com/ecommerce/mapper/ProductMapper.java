@@ -4,25 +4,40 @@ import com.ecommerce.dto.request.ProductCreateRequest;
 import com.ecommerce.dto.request.ProductUpdateRequest;
 import com.ecommerce.dto.response.ProductResponse;
 import com.ecommerce.entity.Product;
+import com.ecommerce.repository.projection.ProductListingView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
+import org.mapstruct.Named;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
+import java.util.List;
+
 @Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
 public interface ProductMapper {
 
     @Mapping(source = "category.id", target = "categoryId")
     @Mapping(source = "category.name", target = "categoryName")
     @Mapping(target = "price", ignore = true) // Calculated in service
-    @Mapping(target = "inStock", expression = "java(product.getStockQuantity() > 0)")
-    @Mapping(target = "lowStock", expression = "java(product.getStockQuantity() <= product.getMinStockLevel())")
+    @Mapping(target = "inStock", expression = "java(product.getAvailableQuantity() > 0)")
+    @Mapping(target = "lowStock", expression = "java(product.getAvailableQuantity() <= product.getMinStockLevel())")
     @Mapping(target = "isNew", ignore = true) // Calculated
     @Mapping(target = "isBestSeller", ignore = true) // Calculated
     @Mapping(target = "originalPrice", ignore = true)
     @Mapping(target = "discount", ignore = true)
     ProductResponse toResponse(Product product);
 
+    @Mapping(source = "imageUrl", target = "imageUrls", qualifiedByName = "singleImage")
+    @Mapping(target = "price", ignore = true) // Calculated in service
+    @Mapping(target = "inStock", ignore = true) // Calculated in service
+    @Mapping(target = "lowStock", ignore = true) // Calculated in service
+    @Mapping(target = "isNew", ignore = true)
+    @Mapping(target = "isBestSeller", ignore = true)
+    @Mapping(target = "originalPrice", ignore = true)
+    @Mapping(target = "discount", ignore = true)
+    @Mapping(target = "attributes", ignore = true)
+    ProductResponse toResponse(ProductListingView view);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "category", ignore = true) // Set in service
     @Mapping(target = "createdAt", ignore = true)
@@ -34,6 +49,7 @@ public interface ProductMapper {
     @Mapping(target = "totalReviews", constant = "0")
     @Mapping(target = "averageRating", constant = "0.0")
     @Mapping(target = "imageUrls", ignore = true)
+    @Mapping(target = "reservedQuantity", ignore = true)
     Product toEntity(ProductCreateRequest request);
 
     @Mapping(target = "id", ignore = true)
@@ -43,5 +59,11 @@ public interface ProductMapper {
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "updatedBy", ignore = true)
     @Mapping(target = "imageUrls", ignore = true)
+    @Mapping(target = "reservedQuantity", ignore = true)
     void updateEntity(ProductUpdateRequest request, @MappingTarget Product product);
-}
\ No newline at end of file
+
+    @Named("singleImage")
+    default List<String> singleImage(String imageUrl) {
+        return imageUrl != null ? List.of(imageUrl) : List.of();
+    }
+}
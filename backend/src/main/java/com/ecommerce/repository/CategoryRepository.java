@@ -4,6 +4,7 @@ import com.ecommerce.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -18,4 +19,7 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
            "FROM Category c JOIN c.products p JOIN p.orderItems oi JOIN oi.order o " +
            "WHERE o.status = 'DELIVERED' GROUP BY c.id, c.name")
     List<Map<String, Object>> getCategorySalesStats();
+
+    @Query("SELECT c.id, c.name FROM Category c WHERE c.id IN :ids")
+    List<Object[]> findNamesByIdIn(Collection<Long> ids);
 }
\ No newline at end of file
@@ -4,9 +4,11 @@ import com.ecommerce.entity.Invoice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -23,4 +25,15 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     
     @Query("SELECT i FROM Invoice i WHERE i.dueDate < CURRENT_DATE AND i.status <> 'PAID' AND i.status <> 'CANCELLED'")
     List<Invoice> findOverdueInvoices();
+
+    // Sets updated_at to itself so MySQL's ON UPDATE does not bump it; no-op if the invoice changed meanwhile
+    @Modifying
+    @Query(value = "UPDATE invoices SET pdf_url = :pdfUrl, updated_at = updated_at " +
+            "WHERE id = :id AND updated_at = :updatedAt", nativeQuery = true)
+    int updatePdfUrl(Long id, String pdfUrl, LocalDateTime updatedAt);
+
+    @Modifying
+    @Query(value = "UPDATE invoices SET status = CASE WHEN balance_amount = 0 THEN 'PAID' ELSE 'SENT' END, " +
+            "updated_at = updated_at WHERE id = :id AND status = 'DRAFT'", nativeQuery = true)
+    int markSent(Long id);
 }
\ No newline at end of file
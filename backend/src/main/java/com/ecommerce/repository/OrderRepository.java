@@ -1,30 +1,92 @@
 package com.ecommerce.repository;
 
 import com.ecommerce.entity.Order;
+import com.ecommerce.repository.projection.DashboardTotals;
+import com.ecommerce.utils.AppConstants;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByUserId(Long userId, Pageable pageable);
 
-    Page<Order> findByUserIdAndStatus(Long userId, Order.OrderStatus status, Pageable pageable);
+    // Order pages load in two steps: a page of ids, then findAllWithDetails for just those ids.
+    // Fetch-joining the items directly would make Hibernate paginate in memory.
+    @Query(value = "SELECT o.id FROM Order o WHERE o.user.id = :userId AND (:status IS NULL OR o.status = :status)",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId AND (:status IS NULL OR o.status = :status)")
+    Page<Long> findUserOrderIds(Long userId, Order.OrderStatus status, Pageable pageable);
 
-    Page<Order> findByStatus(Order.OrderStatus status, Pageable pageable);
+    @Query(value = "SELECT o.id FROM Order o WHERE :status IS NULL OR o.status = :status",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE :status IS NULL OR o.status = :status")
+    Page<Long> findOrderIds(Order.OrderStatus status, Pageable pageable);
 
-    @Query("SELECT o FROM Order o WHERE " +
+    @Query(value = "SELECT o.id FROM Order o WHERE " +
+            "LOWER(o.orderNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            "LOWER(o.user.email) LIKE LOWER(CONCAT('%', :search, '%'))",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE " +
             "LOWER(o.orderNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(o.user.email) LIKE LOWER(CONCAT('%', :search, '%'))")
-    Page<Order> searchOrders(String search, Pageable pageable);
+    Page<Long> searchOrderIds(String search, Pageable pageable);
+
+    // Keyset pages, newest first; a null createdAt starts from the top
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId " +
+            "AND (:status IS NULL OR o.status = :status) " +
+            "AND (:createdAt IS NULL OR o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Long> findUserOrderIdsBefore(Long userId, Order.OrderStatus status, LocalDateTime createdAt, Long id,
+            Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE (:status IS NULL OR o.status = :status) " +
+            "AND (:createdAt IS NULL OR o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Long> findOrderIdsBefore(Order.OrderStatus status, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    @EntityGraph(Order.DETAILS_GRAPH)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findWithDetailsByIdIn(Collection<Long> ids);
+
+    /**
+     * Loads the orders with everything the order response needs, in the order of {@code ids}.
+     */
+    default List<Order> findAllWithDetails(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Order> byId = new HashMap<>();
+        for (Order order : findWithDetailsByIdIn(ids)) {
+            byId.put(order.getId(), order);
+        }
+        List<Order> orders = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Order order = byId.get(id);
+            if (order != null) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    default Page<Order> findAllWithDetails(Page<Long> ids) {
+        return new PageImpl<>(findAllWithDetails(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
 
     @Query("SELECT CASE WHEN COUNT(o) > 0 THEN true ELSE false END FROM Order o JOIN o.orderItems oi WHERE o.user.id = :userId AND oi.product.id = :productId AND o.status = 'DELIVERED'")
     boolean hasUserPurchasedProduct(Long userId, Long productId);
@@ -43,21 +105,62 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     Long countByStatus(Order.OrderStatus status);
 
-    @Query("SELECT o FROM Order o ORDER BY o.createdAt DESC")
-    List<Order> findRecentOrders(Pageable pageable);
-
-    // Analytics queries (simplified for JPA)
-    @Query(value = "SELECT DATE(created_at) as date, SUM(total_amount) as amount FROM orders WHERE created_at BETWEEN :startDate AND :endDate GROUP BY DATE(created_at)", nativeQuery = true)
-    List<Map<String, Object>> getDailySales(LocalDate startDate, LocalDate endDate);
-
-    @Query(value = "SELECT YEARWEEK(created_at) as week, SUM(total_amount) as amount FROM orders WHERE created_at BETWEEN :startDate AND :endDate GROUP BY YEARWEEK(created_at)", nativeQuery = true)
-    List<Map<String, Object>> getWeeklySales(LocalDate startDate, LocalDate endDate);
-
-    @Query(value = "SELECT CONCAT(YEAR(created_at), '-', MONTH(created_at)) as month, SUM(total_amount) as amount FROM orders WHERE created_at BETWEEN :startDate AND :endDate GROUP BY YEAR(created_at), MONTH(created_at)", nativeQuery = true)
-    List<Map<String, Object>> getMonthlySales(LocalDate startDate, LocalDate endDate);
-
-    @Query(value = "SELECT YEAR(created_at) as year, SUM(total_amount) as amount FROM orders WHERE YEAR(created_at) BETWEEN :startYear AND :endYear GROUP BY YEAR(created_at)", nativeQuery = true)
-    List<Map<String, Object>> getYearlySales(int startYear, int endYear);
+    // Every admin dashboard figure in one round trip, using conditional aggregation
+    // over last month to date instead of a query per figure
+    @Query(value = "SELECT period.currentMonthRevenue, period.lastMonthRevenue, period.currentMonthOrders, " +
+            "period.lastMonthOrders, period.todayRevenue, period.todayOrders, " +
+            "statuses.pendingOrders, statuses.processingOrders, statuses.completedOrders, " +
+            "customers.currentMonthCustomers, customers.lastMonthCustomers, " +
+            "products.totalProducts, products.lowStockProducts, products.outOfStockProducts " +
+            "FROM (SELECT " +
+            "  COALESCE(SUM(CASE WHEN o.created_at >= :startOfMonth AND o.status <> 'CANCELLED' THEN o.total_amount END), 0) AS currentMonthRevenue, " +
+            "  COALESCE(SUM(CASE WHEN o.created_at < :startOfMonth AND o.status <> 'CANCELLED' THEN o.total_amount END), 0) AS lastMonthRevenue, " +
+            "  COUNT(CASE WHEN o.created_at >= :startOfMonth THEN 1 END) AS currentMonthOrders, " +
+            "  COUNT(CASE WHEN o.created_at < :startOfMonth THEN 1 END) AS lastMonthOrders, " +
+            "  COALESCE(SUM(CASE WHEN o.created_at >= :startOfDay AND o.status <> 'CANCELLED' THEN o.total_amount END), 0) AS todayRevenue, " +
+            "  COUNT(CASE WHEN o.created_at >= :startOfDay THEN 1 END) AS todayOrders " +
+            "  FROM orders o WHERE o.created_at >= :startOfLastMonth AND o.created_at <= :asOf) period " +
+            "CROSS JOIN (SELECT " +
+            "  COUNT(CASE WHEN o.status = 'PENDING' THEN 1 END) AS pendingOrders, " +
+            "  COUNT(CASE WHEN o.status = 'PROCESSING' THEN 1 END) AS processingOrders, " +
+            "  COUNT(CASE WHEN o.status = 'DELIVERED' THEN 1 END) AS completedOrders " +
+            "  FROM orders o WHERE o.status IN ('PENDING', 'PROCESSING', 'DELIVERED')) statuses " +
+            "CROSS JOIN (SELECT " +
+            "  COUNT(CASE WHEN u.created_at >= :startOfMonth THEN 1 END) AS currentMonthCustomers, " +
+            "  COUNT(CASE WHEN u.created_at < :startOfMonth THEN 1 END) AS lastMonthCustomers " +
+            "  FROM users u WHERE u.created_at >= :startOfLastMonth AND u.created_at <= :asOf) customers " +
+            "CROSS JOIN (SELECT " +
+            "  COUNT(*) AS totalProducts, " +
+            "  COUNT(CASE WHEN p.stock_quantity <= p.min_stock_level THEN 1 END) AS lowStockProducts, " +
+            "  COUNT(CASE WHEN p.stock_quantity = 0 THEN 1 END) AS outOfStockProducts " +
+            "  FROM products p WHERE p.active = TRUE) products",
+            nativeQuery = true)
+    DashboardTotals getDashboardTotals(LocalDateTime startOfLastMonth, LocalDateTime startOfMonth,
+            LocalDateTime startOfDay, LocalDateTime asOf);
+
+    @Query("SELECT o.id FROM Order o ORDER BY o.createdAt DESC")
+    List<Long> findRecentOrderIds(Pageable pageable);
 
     List<Order> findByUserId(Long userId);
-}
\ No newline at end of file
+
+    // Report export rows, streamed from the driver; scalar rows keep the persistence context empty
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = AppConstants.STREAMING_FETCH_SIZE))
+    @Query("SELECT o.orderNumber, o.createdAt, u.email, o.status, i.productSku, i.productName, " +
+            "i.quantity, i.unitPrice, i.taxAmount, i.totalAmount " +
+            "FROM OrderItem i JOIN i.order o JOIN o.user u " +
+            "WHERE o.createdAt >= :start AND o.createdAt < :end ORDER BY o.id, i.id")
+    Stream<Object[]> streamSalesLines(LocalDateTime start, LocalDateTime end);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = AppConstants.STREAMING_FETCH_SIZE))
+    @Query("SELECT o.orderNumber, o.createdAt, u.email, u.gstNumber, o.subtotal, o.cgstAmount, o.sgstAmount, " +
+            "o.igstAmount, o.totalTax, o.totalAmount " +
+            "FROM Order o JOIN o.user u " +
+            "WHERE o.createdAt >= :start AND o.createdAt < :end AND o.status <> 'CANCELLED' ORDER BY o.id")
+    Stream<Object[]> streamTaxLines(LocalDateTime start, LocalDateTime end);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = AppConstants.STREAMING_FETCH_SIZE))
+    @Query("SELECT o.id, o.orderNumber, o.createdAt, o.status, o.paymentStatus, o.totalAmount, " +
+            "i.productSku, i.productName, i.quantity, i.unitPrice, i.totalAmount " +
+            "FROM Order o LEFT JOIN o.orderItems i WHERE o.user.id = :userId ORDER BY o.id, i.id")
+    Stream<Object[]> streamUserOrderLines(Long userId);
+}
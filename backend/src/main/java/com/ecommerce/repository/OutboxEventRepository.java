@@ -0,0 +1,33 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<Long> findDueIds(OutboxEvent.Status status, LocalDateTime now, Pageable pageable);
+
+    // SKIP LOCKED: an event being delivered by another node is left to that node
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id = :id")
+    Optional<OutboxEvent> findByIdForUpdate(Long id);
+
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.status = :status")
+    long countByStatus(OutboxEvent.Status status);
+}
@@ -1,32 +1,69 @@
 package com.ecommerce.repository;
 
 import com.ecommerce.entity.Product;
+import com.ecommerce.repository.projection.ProductListingView;
+import com.ecommerce.repository.projection.ProductSearchView;
+import com.ecommerce.utils.AppConstants;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>,JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>,JpaSpecificationExecutor<Product>,
+        ProductStockRepository {
+    Slice<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
     boolean existsBySku(String sku);
 
-    Page<Product> findByCategoryIdAndActiveTrue(Long categoryId, Pageable pageable);
+    // Listing pages select their columns straight into ProductListingView: no managed entities, no eager
+    // category/user loads, and the first image comes from a subquery instead of the image collection
+    String LISTING_SELECT = "SELECT p.id AS id, p.name AS name, p.sku AS sku, p.description AS description, " +
+            "c.id AS categoryId, c.name AS categoryName, p.basePrice AS basePrice, p.businessPrice AS businessPrice, " +
+            "p.stockQuantity AS stockQuantity, p.reservedQuantity AS reservedQuantity, " +
+            "p.minStockLevel AS minStockLevel, p.active AS active, p.gstApplicable AS gstApplicable, " +
+            "p.gstRate AS gstRate, p.unit AS unit, p.brand AS brand, p.manufacturer AS manufacturer, " +
+            "p.partNumber AS partNumber, p.averageRating AS averageRating, p.totalReviews AS totalReviews, " +
+            "minelement(p.imageUrls) AS imageUrl FROM Product p LEFT JOIN p.category c ";
+
+    String LISTING_FILTER = "WHERE p.active = true AND (:category IS NULL OR c.name = :category) " +
+            "AND (:inStock = false OR p.stockQuantity - p.reservedQuantity > 0) ";
+
+    @Query(value = LISTING_SELECT + LISTING_FILTER,
+            countQuery = "SELECT COUNT(p) FROM Product p LEFT JOIN p.category c " + LISTING_FILTER)
+    Page<ProductListingView> findListings(String category, boolean inStock, Pageable pageable);
+
+    // Keyset pages in id order; a null afterId starts from the first product
+    @Query(LISTING_SELECT + LISTING_FILTER + "AND (:afterId IS NULL OR p.id > :afterId) ORDER BY p.id")
+    List<ProductListingView> findListingsAfter(String category, boolean inStock, Long afterId, Pageable pageable);
 
-    @Query("SELECT p FROM Product p WHERE p.active = true")
-    List<Product> findFeaturedProducts(Pageable pageable);
+    @Query(value = LISTING_SELECT + "WHERE c.id = :categoryId AND p.active = true",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId AND p.active = true")
+    Page<ProductListingView> findListingsByCategoryId(Long categoryId, Pageable pageable);
 
-    @Query("SELECT p FROM Product p WHERE p.active = true AND p.createdAt >= :date ORDER BY p.createdAt DESC")
-    List<Product> findNewArrivals(LocalDateTime date, Pageable pageable);
+    @Query(LISTING_SELECT + "WHERE p.active = true")
+    List<ProductListingView> findFeaturedListings(Pageable pageable);
 
-    @Query("SELECT p FROM Product p WHERE p.active = true ORDER BY p.totalReviews DESC")
-    List<Product> findBestSellers(Pageable pageable);
+    @Query(LISTING_SELECT + "WHERE p.active = true AND p.createdAt >= :date ORDER BY p.createdAt DESC")
+    List<ProductListingView> findNewArrivalListings(LocalDateTime date, Pageable pageable);
+
+    @Query(LISTING_SELECT + "WHERE p.active = true ORDER BY p.totalReviews DESC")
+    List<ProductListingView> findBestSellerListings(Pageable pageable);
 
     @Query("SELECT p FROM Product p WHERE p.active = true AND p.category.id = :categoryId AND p.id <> :productId")
     List<Product> findRelatedProducts(Long categoryId, Long productId, Pageable pageable);
@@ -49,10 +86,6 @@ public interface ProductRepository extends JpaRepository<Product, Long>,JpaSpeci
     @Query("SELECT MAX(p.basePrice) FROM Product p JOIN p.category c WHERE p.active = true AND c.name = :category")
     BigDecimal findMaxPriceByCategory(String category);
 
-    @Modifying
-    @Query("UPDATE Product p SET p.viewCount = p.viewCount + 1 WHERE p.id = :id")
-    void incrementViewCount(Long id);
-
     Long countByActiveTrue();
 
     @Query("SELECT COUNT(p) FROM Product p WHERE p.active = true AND p.stockQuantity <= p.minStockLevel")
@@ -62,4 +95,41 @@ public interface ProductRepository extends JpaRepository<Product, Long>,JpaSpeci
     Long countOutOfStockProducts();
 
     Page<Product> findByIdIn(List<Long> ids, Pageable pageable);
-}
\ No newline at end of file
+
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description, p.sku AS sku, " +
+            "p.partNumber AS partNumber, p.brand AS brand FROM Product p " +
+            "WHERE p.active = true AND p.id > :afterId ORDER BY p.id")
+    List<ProductSearchView> findSearchViewsAfter(Long afterId, Pageable pageable);
+
+    // Guarded stock updates: the check and the write happen in one statement, so
+    // concurrent checkouts can never oversell. Both return the number of rows updated.
+    // Stock held by reservations cannot be deducted.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE p.id = :id AND p.stockQuantity - p.reservedQuantity >= :quantity")
+    int decrementStock(Long id, int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity, p.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE p.id = :id")
+    int incrementStock(Long id, int quantity);
+
+    @Query("SELECT p.stockQuantity - p.reservedQuantity FROM Product p WHERE p.id = :id")
+    Integer findAvailableQuantityById(Long id);
+
+    @Query("SELECT COUNT(p) > 0 FROM Product p WHERE p.id = :id " +
+            "AND p.stockQuantity - p.reservedQuantity <= p.minStockLevel")
+    boolean isLowStock(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = AppConstants.STREAMING_FETCH_SIZE))
+    @Query("SELECT p.sku, p.name, c.name, p.stockQuantity, p.reservedQuantity, p.minStockLevel, p.basePrice, p.active " +
+            "FROM Product p LEFT JOIN p.category c ORDER BY p.id")
+    Stream<Object[]> streamInventoryLines();
+
+    @Query("SELECT p.id, p.name FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findNamesByIdIn(Collection<Long> ids);
+}
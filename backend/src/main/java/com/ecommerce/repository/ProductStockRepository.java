@@ -0,0 +1,38 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.Product;
+
+import java.util.Map;
+
+/**
+ * Multi-product stock updates that run as a single guarded statement.
+ * Methods that can fail are all-or-nothing and must be called inside a transaction.
+ */
+public interface ProductStockRepository {
+
+    /**
+     * Deducts on-hand stock for every product, or throws when any product does not have
+     * enough unreserved stock.
+     */
+    void decrementStock(Map<Long, Integer> quantities);
+
+    void incrementStock(Map<Long, Integer> quantities);
+
+    /**
+     * Moves unreserved stock into the reserved quantity, or throws when any product does not
+     * have enough available.
+     */
+    void reserveStock(Map<Long, Integer> quantities);
+
+    /**
+     * Deducts previously reserved quantities from both on-hand and reserved stock.
+     */
+    void commitReservedStock(Map<Long, Integer> quantities);
+
+    void releaseReservedStock(Map<Long, Integer> quantities);
+
+    /**
+     * Reloads the stock columns of a managed product after a bulk update bypassed the persistence context.
+     */
+    void refresh(Product product);
+}
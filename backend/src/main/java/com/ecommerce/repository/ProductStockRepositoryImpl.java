@@ -0,0 +1,136 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.exception.InsufficientStockException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    // Placeholder replaced by a per-product "CASE id WHEN ? THEN ? ... END" expression
+    private static final String QUANTITY = ":quantity";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductStockRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void decrementStock(Map<Long, Integer> quantities) {
+        updateAll(quantities,
+                "stock_quantity = stock_quantity - :quantity",
+                "stock_quantity - reserved_quantity >= :quantity");
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void incrementStock(Map<Long, Integer> quantities) {
+        update(quantities, "stock_quantity = stock_quantity + :quantity", null);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserveStock(Map<Long, Integer> quantities) {
+        updateAll(quantities,
+                "reserved_quantity = reserved_quantity + :quantity",
+                "stock_quantity - reserved_quantity >= :quantity");
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void commitReservedStock(Map<Long, Integer> quantities) {
+        updateAll(quantities,
+                "stock_quantity = stock_quantity - :quantity, reserved_quantity = reserved_quantity - :quantity",
+                "reserved_quantity >= :quantity AND stock_quantity >= :quantity");
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseReservedStock(Map<Long, Integer> quantities) {
+        update(quantities, "reserved_quantity = GREATEST(reserved_quantity - :quantity, 0)", null);
+    }
+
+    @Override
+    public void refresh(Product product) {
+        if (entityManager.contains(product)) {
+            entityManager.refresh(product);
+        }
+    }
+
+    private void updateAll(Map<Long, Integer> quantities, String assignments, String guard) {
+        Map<Long, Integer> sorted = sortAndValidate(quantities);
+        int updated = update(sorted, assignments, guard);
+        if (updated != sorted.size()) {
+            // Other rows may already be updated; the exception rolls the caller's transaction back
+            throw new InsufficientStockException("Insufficient stock for one or more products: " + sorted.keySet());
+        }
+    }
+
+    // UPDATE products SET <assignments>, updated_at = ... WHERE id IN (...) [AND <guard>]
+    private int update(Map<Long, Integer> quantities, String assignments, String guard) {
+        Map<Long, Integer> sorted = sortAndValidate(quantities);
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("UPDATE products SET ");
+        appendWithQuantities(sql, assignments, sorted, args);
+        sql.append(", updated_at = CURRENT_TIMESTAMP WHERE id IN (")
+                .append(String.join(", ", Collections.nCopies(sorted.size(), "?")))
+                .append(")");
+        args.addAll(sorted.keySet());
+
+        if (guard != null) {
+            sql.append(" AND ");
+            appendWithQuantities(sql, guard, sorted, args);
+        }
+
+        // Pending entity changes must reach the database before the JDBC statement runs
+        entityManager.flush();
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private void appendWithQuantities(StringBuilder sql, String template, Map<Long, Integer> quantities,
+            List<Object> args) {
+        int from = 0;
+        int at;
+        while ((at = template.indexOf(QUANTITY, from)) >= 0) {
+            sql.append(template, from, at).append("CASE id");
+            quantities.forEach((productId, quantity) -> {
+                sql.append(" WHEN ? THEN ?");
+                args.add(productId);
+                args.add(quantity);
+            });
+            sql.append(" END");
+            from = at + QUANTITY.length();
+        }
+        sql.append(template.substring(from));
+    }
+
+    private Map<Long, Integer> sortAndValidate(Map<Long, Integer> quantities) {
+        // Sorted by id so concurrent checkouts lock product rows in the same order
+        Map<Long, Integer> sorted = new TreeMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for product " + productId);
+            }
+            sorted.merge(productId, quantity, Integer::sum);
+        });
+        return sorted;
+    }
+}
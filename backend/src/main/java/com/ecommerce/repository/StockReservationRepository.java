@@ -0,0 +1,28 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.StockReservation;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.order.id = :orderId AND r.status = :status ORDER BY r.product.id")
+    List<StockReservation> findByOrderIdAndStatusForUpdate(Long orderId, StockReservation.Status status);
+
+    // Lock timeout -2 renders as SKIP LOCKED, so sweeps on several nodes take disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM StockReservation r WHERE r.status = :status AND r.expiresAt < :now ORDER BY r.id")
+    List<StockReservation> findExpiredForUpdate(StockReservation.Status status, LocalDateTime now, Pageable pageable);
+}
@@ -1,16 +1,21 @@
 package com.ecommerce.repository;
 
 import com.ecommerce.entity.User;
+import com.ecommerce.utils.AppConstants;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -43,4 +48,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.createdAt BETWEEN :startDate AND :endDate")
     Long countNewCustomers(LocalDateTime startDate, LocalDateTime endDate);
-}
\ No newline at end of file
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = AppConstants.STREAMING_FETCH_SIZE))
+    @Query("SELECT u.id, u.email, u.firstName, u.lastName, u.customerType, u.companyName, u.active, u.createdAt " +
+            "FROM User u ORDER BY u.id")
+    Stream<Object[]> streamUserLines();
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.repository.projection;
+
+import java.math.BigDecimal;
+
+public interface DashboardTotals {
+    BigDecimal getCurrentMonthRevenue();
+
+    BigDecimal getLastMonthRevenue();
+
+    Long getCurrentMonthOrders();
+
+    Long getLastMonthOrders();
+
+    BigDecimal getTodayRevenue();
+
+    Long getTodayOrders();
+
+    Long getPendingOrders();
+
+    Long getProcessingOrders();
+
+    Long getCompletedOrders();
+
+    Long getCurrentMonthCustomers();
+
+    Long getLastMonthCustomers();
+
+    Long getTotalProducts();
+
+    Long getLowStockProducts();
+
+    Long getOutOfStockProducts();
+}
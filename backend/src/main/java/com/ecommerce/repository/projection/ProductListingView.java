@@ -0,0 +1,50 @@
+package com.ecommerce.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * The columns a product card needs, with only the first image instead of the whole image collection.
+ */
+public interface ProductListingView {
+    Long getId();
+
+    String getName();
+
+    String getSku();
+
+    String getDescription();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    BigDecimal getBasePrice();
+
+    BigDecimal getBusinessPrice();
+
+    Integer getStockQuantity();
+
+    Integer getReservedQuantity();
+
+    Integer getMinStockLevel();
+
+    Boolean getActive();
+
+    Boolean getGstApplicable();
+
+    BigDecimal getGstRate();
+
+    String getUnit();
+
+    String getBrand();
+
+    String getManufacturer();
+
+    String getPartNumber();
+
+    Double getAverageRating();
+
+    Integer getTotalReviews();
+
+    String getImageUrl();
+}
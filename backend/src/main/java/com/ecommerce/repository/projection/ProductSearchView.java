@@ -0,0 +1,15 @@
+package com.ecommerce.repository.projection;
+
+public interface ProductSearchView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    String getSku();
+
+    String getPartNumber();
+
+    String getBrand();
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node-local blacklist. Each entry expires with the token it revokes, so the set never holds more
+ * than the tokens revoked within one token lifetime. There is deliberately no size cap:
+ * evicting a live entry early would make a revoked token valid again.
+ */
+public class InMemoryTokenBlacklist implements TokenBlacklist {
+
+    // token id -> token expiry in epoch millis
+    private final Cache<String, Long> revoked = Caffeine.newBuilder()
+            .expireAfter(new Expiry<String, Long>() {
+                @Override
+                public long expireAfterCreate(String key, Long expiresAtMs, long currentTime) {
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(expiresAtMs - System.currentTimeMillis(), 0));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Long expiresAtMs, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, expiresAtMs, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, Long expiresAtMs, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    public InMemoryTokenBlacklist(MeterRegistry meterRegistry) {
+        Gauge.builder("auth.tokens.revoked", revoked, Cache::estimatedSize)
+                .description("Revoked tokens that have not expired yet")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (expiresAt.isAfter(Instant.now())) {
+            revoked.put(tokenId, expiresAt.toEpochMilli());
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return revoked.getIfPresent(tokenId) != null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.security;
+
+import com.ecommerce.entity.User;
+import com.ecommerce.utils.SingleFlight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of authenticated principals keyed by email, so requests carrying a valid JWT
+ * don't reload the user and its roles from the database every time.
+ * Services that change a user's profile, password, status or roles call {@link #evict} so the change
+ * is picked up on the next request rather than after the TTL. Each request gets its own copy of the
+ * cached user, so a request that modifies its principal cannot leak the change into other requests.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, UserDetails> principals;
+    private final SingleFlight<String, UserDetails> loads = new SingleFlight<>();
+
+    public PrincipalCache(UserDetailsService userDetailsService, MeterRegistry meterRegistry,
+            @Value("${security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${security.principal-cache.ttl:60s}") Duration ttl) {
+        this.userDetailsService = userDetailsService;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
+
+    public UserDetails load(String email) {
+        UserDetails cached = principals.getIfPresent(email);
+        if (cached == null) {
+            // Loaded outside the cache's compute, which would hold a monitor across the query
+            cached = loads.load(email, () -> {
+                UserDetails loaded = userDetailsService.loadUserByUsername(email);
+                principals.put(email, loaded);
+                return loaded;
+            });
+        }
+        return cached instanceof User user ? user.copy() : cached;
+    }
+
+    /**
+     * Drops the cached principal. Inside a transaction the eviction is deferred until commit,
+     * so a concurrent request cannot re-cache the pre-commit state.
+     */
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    principals.invalidate(email);
+                }
+            });
+        } else {
+            principals.invalidate(email);
+        }
+    }
+}
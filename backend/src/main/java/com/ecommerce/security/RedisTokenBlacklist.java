@@ -0,0 +1,91 @@
+package com.ecommerce.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Blacklist shared across nodes through Redis.
+ *
+ * Revocations are written to Redis with a TTL matching the token's expiry and broadcast on a
+ * pub/sub channel, and every node mirrors them into its {@link InMemoryTokenBlacklist}.
+ * Lookups on the request path therefore never leave the JVM. A node that starts later
+ * loads the outstanding revocations from Redis in {@link #loadExisting()}.
+ */
+@Slf4j
+public class RedisTokenBlacklist implements TokenBlacklist {
+
+    private static final String KEY_PREFIX = "ecommerce:revoked-token:";
+
+    private final InMemoryTokenBlacklist local;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+
+    public RedisTokenBlacklist(InMemoryTokenBlacklist local, StringRedisTemplate redisTemplate, String channel) {
+        this.local = local;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+        local.revoke(tokenId, expiresAt);
+
+        Duration ttl = Duration.between(Instant.now(), expiresAt);
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + tokenId, String.valueOf(expiresAt.toEpochMilli()), ttl);
+            redisTemplate.convertAndSend(channel, tokenId + "|" + expiresAt.toEpochMilli());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to share revocation of token {} through Redis: {}", tokenId, ex.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return local.isRevoked(tokenId);
+    }
+
+    /**
+     * Applies a revocation announced by another node.
+     */
+    public void onRevocation(String payload) {
+        int separator = payload.lastIndexOf('|');
+        if (separator < 0) {
+            return;
+        }
+
+        try {
+            long expiresAtMs = Long.parseLong(payload.substring(separator + 1));
+            local.revoke(payload.substring(0, separator), Instant.ofEpochMilli(expiresAtMs));
+        } catch (NumberFormatException ex) {
+            log.warn("Ignoring malformed token revocation message: {}", payload);
+        }
+    }
+
+    public void loadExisting() {
+        int loaded = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(500).build();
+
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                String key = keys.next();
+                String expiresAtMs = redisTemplate.opsForValue().get(key);
+                if (expiresAtMs != null) {
+                    local.revoke(key.substring(KEY_PREFIX.length()), Instant.ofEpochMilli(Long.parseLong(expiresAtMs)));
+                    loaded++;
+                }
+            }
+            log.info("Loaded {} revoked tokens from Redis", loaded);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to load revoked tokens from Redis: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.security;
+
+import java.time.Instant;
+
+/**
+ * Revoked JWTs, keyed by token id. Entries only need to live until the token's own expiry,
+ * after which the signature check rejects the token anyway.
+ */
+public interface TokenBlacklist {
+
+    void revoke(String tokenId, Instant expiresAt);
+
+    boolean isRevoked(String tokenId);
+}
@@ -10,9 +10,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -21,7 +21,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional(readOnly = false)
+@Transactional(readOnly = true)
 public class AdminService {
 
     private final OrderMapper orderMapper;
@@ -30,61 +30,16 @@ public class AdminService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final SystemSettingsRepository settingsRepository;
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final SalesRollupService salesRollupService;
+
     public DashboardStatsResponse getDashboardStats() {
-        DashboardStatsResponse stats = new DashboardStatsResponse();
-
-        // Get current month stats
-        LocalDateTime startOfMonth = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        LocalDateTime now = LocalDateTime.now();
-
-        // Revenue stats
-        BigDecimal currentMonthRevenue = orderRepository.getRevenueByDateRange(startOfMonth, now);
-        BigDecimal lastMonthRevenue = orderRepository.getRevenueByDateRange(
-                startOfMonth.minusMonths(1), startOfMonth);
-
-        stats.setTotalRevenue(currentMonthRevenue);
-        stats.setRevenueChange(calculatePercentageChange(currentMonthRevenue, lastMonthRevenue));
-
-        // Order stats
-        Long currentMonthOrders = orderRepository.countByCreatedAtBetween(startOfMonth, now);
-        Long lastMonthOrders = orderRepository.countByCreatedAtBetween(
-                startOfMonth.minusMonths(1), startOfMonth);
-
-        stats.setTotalOrders(currentMonthOrders);
-        stats.setOrdersChange(calculatePercentageChange(
-                BigDecimal.valueOf(currentMonthOrders),
-                BigDecimal.valueOf(lastMonthOrders)));
-
-        // Customer stats
-        Long currentMonthCustomers = userRepository.countNewCustomers(startOfMonth, now);
-        Long lastMonthCustomers = userRepository.countNewCustomers(
-                startOfMonth.minusMonths(1), startOfMonth);
-
-        stats.setTotalCustomers(currentMonthCustomers);
-        stats.setCustomersChange(calculatePercentageChange(
-                BigDecimal.valueOf(currentMonthCustomers),
-                BigDecimal.valueOf(lastMonthCustomers)));
-
-        // Product stats
-        stats.setTotalProducts(productRepository.countByActiveTrue());
-        stats.setLowStockProducts(productRepository.countLowStockProducts());
-        stats.setOutOfStockProducts(productRepository.countOutOfStockProducts());
-
-        // Recent activity
-        stats.setPendingOrders(orderRepository.countByStatus(Order.OrderStatus.PENDING));
-        stats.setProcessingOrders(orderRepository.countByStatus(Order.OrderStatus.PROCESSING));
-        stats.setCompletedOrders(orderRepository.countByStatus(Order.OrderStatus.DELIVERED));
-
-        // Today's stats
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        stats.setTodayRevenue(orderRepository.getRevenueByDateRange(startOfDay, now));
-        stats.setTodayOrders(orderRepository.countByCreatedAtBetween(startOfDay, now));
-
-        return stats;
+        return dashboardSnapshotService.getSnapshot();
     }
 
     public List<OrderResponse> getRecentOrders(int limit) {
-        List<Order> orders = orderRepository.findRecentOrders(PageRequest.of(0, limit));
+        List<Order> orders = orderRepository.findAllWithDetails(
+                orderRepository.findRecentOrderIds(PageRequest.of(0, limit)));
         
         // Fix for "incompatible types" error
         return orders.stream()
@@ -106,16 +61,16 @@ public class AdminService {
 
         switch (period.toUpperCase()) {
             case "DAILY":
-                data = orderRepository.getDailySales(startDate, endDate);
+                data = salesRollupService.getDailySales(startDate, endDate);
                 break;
             case "WEEKLY":
-                data = orderRepository.getWeeklySales(startDate, endDate);
+                data = salesRollupService.getWeeklySales(startDate, endDate);
                 break;
             case "MONTHLY":
-                data = orderRepository.getMonthlySales(startDate, endDate);
+                data = salesRollupService.getMonthlySales(startDate, endDate);
                 break;
             case "YEARLY":
-                data = orderRepository.getYearlySales(startDate.getYear(), endDate.getYear());
+                data = salesRollupService.getYearlySales(startDate.getYear(), endDate.getYear());
                 break;
         }
 
@@ -127,6 +82,14 @@ public class AdminService {
         return salesData;
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildSalesRollup(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        return salesRollupService.backfill(startDate, endDate);
+    }
+
     public List<Map<String, Object>> getCategorySales() {
         return categoryRepository.getCategorySalesStats();
     }
@@ -159,16 +122,4 @@ public class AdminService {
 
         return getSystemSettings();
     }
-
-    private double calculatePercentageChange(BigDecimal current, BigDecimal previous) {
-        if (previous == null || previous.compareTo(BigDecimal.ZERO) == 0) {
-            return current.compareTo(BigDecimal.ZERO) > 0 ? 100.0 : 0.0;
-        }
-
-        BigDecimal change = current.subtract(previous)
-                .divide(previous, 4, BigDecimal.ROUND_HALF_UP)
-                .multiply(BigDecimal.valueOf(100));
-
-        return change.doubleValue();
-    }
 }
\ No newline at end of file
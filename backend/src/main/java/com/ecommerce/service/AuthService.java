@@ -11,15 +11,18 @@ import com.ecommerce.repository.RoleRepository;
 import com.ecommerce.repository.UserRepository;
 import com.ecommerce.repository.VerificationTokenRepository;
 import com.ecommerce.security.JwtTokenProvider;
+import com.ecommerce.security.PrincipalCache;
+import com.ecommerce.security.TokenBlacklist;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -33,13 +36,12 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
     private final JwtTokenProvider tokenProvider;
+    private final PrincipalCache principalCache;
+    private final TokenBlacklist tokenBlacklist;
 
     @Value("${app.frontend.url}")
     private String frontendUrl;
 
-    // Token blacklist for logout
-    private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
-
     public User registerUser(RegisterRequest request) {
         log.info("Registering new user: {}", request.getEmail());
 
@@ -121,6 +123,7 @@ public class AuthService {
         User user = verificationToken.getUser();
         user.setEmailVerified(true);
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
 
         // Delete used token
         tokenRepository.delete(verificationToken);
@@ -183,6 +186,7 @@ public class AuthService {
         User user = resetToken.getUser();
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
 
         // Delete used token
         tokenRepository.delete(resetToken);
@@ -210,17 +214,32 @@ public class AuthService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
 
         log.info("Password changed for user: {}", user.getEmail());
     }
 
+    // Blacklist operations don't touch the database, so they don't open a transaction on the request path
+
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void blacklistToken(String token) {
-        blacklistedTokens.add(token);
-        log.info("Token blacklisted");
+        // Invalid or already expired tokens are rejected anyway, nothing to revoke
+        tokenProvider.parseValidatedClaims(token).ifPresent(claims -> {
+            tokenBlacklist.revoke(tokenProvider.getTokenId(claims, token), claims.getExpiration().toInstant());
+            log.info("Token blacklisted");
+        });
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean isTokenBlacklisted(String token) {
-        return blacklistedTokens.contains(token);
+        return tokenProvider.parseValidatedClaims(token)
+                .map(claims -> isTokenBlacklisted(claims, token))
+                .orElse(false);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean isTokenBlacklisted(Claims claims, String token) {
+        return tokenBlacklist.isRevoked(tokenProvider.getTokenId(claims, token));
     }
 
     private String generateVerificationToken(User user) {
@@ -1,8 +1,42 @@
 package com.ecommerce.service;
 
+import com.ecommerce.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
 @Service
+@RequiredArgsConstructor
+@Slf4j
 public class CacheService {
-    // Methods if any required
-}
\ No newline at end of file
+
+    public static final String PRODUCTS_CACHE = "products";
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Cache key for a product as seen by one customer type, e.g. {@code 42_BUSINESS}.
+     */
+    public static String productKey(Long productId, User.CustomerType customerType) {
+        return productId + "_" + customerType;
+    }
+
+    /**
+     * Evicts every customer-type variant of a single product.
+     */
+    public void evictProduct(Long productId) {
+        Cache cache = cacheManager.getCache(PRODUCTS_CACHE);
+        if (cache == null) {
+            return;
+        }
+
+        for (User.CustomerType customerType : User.CustomerType.values()) {
+            cache.evict(productKey(productId, customerType));
+        }
+        cache.evict(productKey(productId, null));
+
+        log.debug("Evicted cached product {}", productId);
+    }
+}
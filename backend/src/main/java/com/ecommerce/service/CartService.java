@@ -385,7 +385,7 @@ public class CartService {
         return cartResponse;
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public List<CartItemResponse> getSavedItems(Long userId) {
         List<SavedItem> savedItems = savedItemRepository.findByUserId(userId);
 
@@ -400,7 +400,7 @@ public class CartService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public List<ProductResponse> getRecommendations(Long userId) {
         Cart cart = cartRepository.findByUserId(userId)
                 .orElse(null);
@@ -443,7 +443,7 @@ public class CartService {
         }
     }
 
-    private void updateCartTotals(Cart cart) {
+    void updateCartTotals(Cart cart) {
         BigDecimal subtotal = BigDecimal.ZERO;
         BigDecimal tax = BigDecimal.ZERO;
 
@@ -0,0 +1,200 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OutboxEvent;
+import com.ecommerce.service.report.CustomerRevenueEntry;
+import com.ecommerce.service.report.LongKeyedAccumulator;
+import com.ecommerce.service.report.TopCustomers;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains {@code customer_revenue} and an in-memory top-K of customers by revenue.
+ *
+ * Listens to {@link OutboxEvent.Type#ORDER_CUSTOMER_REVENUE} events, published alongside the sales rollup's:
+ * an order entering any status but CANCELLED counts towards its customer, cancelling it takes it back out.
+ * The per-customer total is written in the dispatcher's transaction, so it is exact; the top-K is
+ * updated after commit and reloaded from the table periodically, which also picks up changes
+ * dispatched by other nodes.
+ */
+@Service
+@Slf4j
+public class CustomerRevenueService implements OutboxEventHandler {
+
+    private static final String UPSERT_SQL = "INSERT INTO customer_revenue " +
+            "(user_id, total_revenue, order_count, last_order_date) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE total_revenue = total_revenue + VALUES(total_revenue), " +
+            "order_count = order_count + VALUES(order_count), " +
+            "last_order_date = CASE WHEN VALUES(order_count) > 0 AND " +
+            "(last_order_date IS NULL OR VALUES(last_order_date) > last_order_date) " +
+            "THEN VALUES(last_order_date) ELSE last_order_date END";
+
+    private static final String SELECT_ENTRY_SQL = "SELECT cr.user_id, CONCAT_WS(' ', u.first_name, u.last_name), " +
+            "u.email, cr.total_revenue, cr.order_count, cr.last_order_date " +
+            "FROM customer_revenue cr JOIN users u ON u.id = cr.user_id ";
+
+    private static final RowMapper<CustomerRevenueEntry> ENTRY_MAPPER = (rs, rowNum) -> {
+        Date lastOrderDate = rs.getDate(6);
+        return new CustomerRevenueEntry(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getBigDecimal(4),
+                rs.getLong(5), lastOrderDate != null ? lastOrderDate.toLocalDate() : null);
+    };
+
+    // Accumulator columns used by the rebuild
+    private static final int REVENUE = 0;
+    private static final int ORDERS = 1;
+    private static final int LAST_ORDER_DAY = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final TopCustomers topCustomers;
+
+    @Value("${app.customer-revenue.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${app.customer-revenue.batch-size:1000}")
+    private int batchSize;
+
+    public CustomerRevenueService(JdbcTemplate jdbcTemplate, DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.customer-revenue.top-size:100}") int topSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        // Makes Connector/J stream the rebuild scan instead of buffering every order
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.topCustomers = new TopCustomers(topSize);
+    }
+
+    @Override
+    public Set<OutboxEvent.Type> getEventTypes() {
+        return EnumSet.of(OutboxEvent.Type.ORDER_CUSTOMER_REVENUE);
+    }
+
+    @Override
+    public void handle(OutboxEvent event, Map<String, Object> payload) {
+        Object userId = payload.get("userId");
+        if (userId == null) {
+            // Published before customer revenue was tracked; the rebuild covers those orders
+            return;
+        }
+
+        boolean counted = countsAsRevenue((String) payload.get("fromStatus"));
+        boolean counts = countsAsRevenue((String) payload.get("toStatus"));
+        if (counted == counts) {
+            return;
+        }
+
+        long customerId = ((Number) userId).longValue();
+        BigDecimal amount = new BigDecimal((String) payload.get("amount"));
+        LocalDate saleDate = LocalDate.parse((String) payload.get("saleDate"));
+        if (counts) {
+            jdbcTemplate.update(UPSERT_SQL, customerId, amount, 1, Date.valueOf(saleDate));
+        } else {
+            jdbcTemplate.update(UPSERT_SQL, customerId, amount.negate(), -1, Date.valueOf(saleDate));
+        }
+
+        List<CustomerRevenueEntry> entry = jdbcTemplate.query(SELECT_ENTRY_SQL + "WHERE cr.user_id = ?",
+                ENTRY_MAPPER, customerId);
+        if (!entry.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    topCustomers.update(entry.get(0));
+                }
+            });
+        }
+    }
+
+    /**
+     * Top customers by revenue from the in-memory ranking; falls back to the table when asked for
+     * more customers than the ranking holds.
+     */
+    public List<CustomerRevenueEntry> getTopCustomers(int limit) {
+        if (limit <= topCustomers.getCapacity()) {
+            return topCustomers.top(limit);
+        }
+        return jdbcTemplate.query(SELECT_ENTRY_SQL + "ORDER BY cr.total_revenue DESC LIMIT ?", ENTRY_MAPPER, limit);
+    }
+
+    @Scheduled(fixedDelayString = "${app.customer-revenue.reload-interval:5m}",
+            initialDelayString = "${app.customer-revenue.reload-interval:5m}")
+    public void reload() {
+        topCustomers.replaceAll(jdbcTemplate.query(SELECT_ENTRY_SQL + "ORDER BY cr.total_revenue DESC LIMIT ?",
+                ENTRY_MAPPER, topCustomers.getCapacity()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (rebuildOnStartup && jdbcTemplate.queryForList("SELECT 1 FROM customer_revenue LIMIT 1").isEmpty()) {
+            rebuild();
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * Recomputes {@code customer_revenue} with a single streamed pass over the orders table, read in a
+     * read-only transaction from the replica, then replaces the table contents in one transaction on the
+     * primary. Orders changing during the scan or not yet replicated can be missed or counted twice, so
+     * run this when order traffic is quiet.
+     */
+    public int rebuild() {
+        long startTime = System.currentTimeMillis();
+
+        LongKeyedAccumulator totals = new LongKeyedAccumulator(3, 1024);
+        readOnlyTransactionTemplate.executeWithoutResult(status -> streamingJdbcTemplate.query(
+                "SELECT user_id, CAST(ROUND(COALESCE(total_amount, 0) * 100) AS SIGNED), TO_DAYS(created_at) " +
+                "FROM orders WHERE status <> '" + Order.OrderStatus.CANCELLED.name() + "'", rs -> {
+            long userId = rs.getLong(1);
+            totals.add(userId, REVENUE, rs.getLong(2));
+            totals.add(userId, ORDERS, 1);
+            totals.max(userId, LAST_ORDER_DAY, rs.getLong(3));
+        }));
+
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((userId, counters, offset) -> rows.add(new Object[]{userId,
+                BigDecimal.valueOf(counters[offset + REVENUE], 2), counters[offset + ORDERS],
+                counters[offset + LAST_ORDER_DAY]}));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM customer_revenue");
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate("INSERT INTO customer_revenue " +
+                                "(user_id, total_revenue, order_count, last_order_date) VALUES (?, ?, ?, FROM_DAYS(?))",
+                        rows.subList(from, Math.min(from + batchSize, rows.size())));
+            }
+        });
+        reload();
+
+        log.info("Customer revenue rebuilt for {} customers in {} ms", rows.size(), System.currentTimeMillis() - startTime);
+        return rows.size();
+    }
+
+    private boolean countsAsRevenue(String status) {
+        return status != null && !Order.OrderStatus.CANCELLED.name().equals(status);
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.response.DashboardStatsResponse;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.projection.DashboardTotals;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * In-memory snapshot of the admin dashboard figures.
+ *
+ * The snapshot is recomputed with a single aggregate query every {@code app.dashboard.refresh-interval}
+ * and served from memory, so dashboard refreshes never reach the database. Responses carry
+ * {@code asOf} so the UI can show how fresh the figures are.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardSnapshotService {
+
+    private final OrderRepository orderRepository;
+
+    private volatile DashboardStatsResponse snapshot;
+
+    public DashboardStatsResponse getSnapshot() {
+        DashboardStatsResponse current = snapshot;
+        if (current == null) {
+            // First request before the scheduler has run
+            current = refresh();
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.refresh-interval:30s}")
+    @Transactional(readOnly = true)
+    public DashboardStatsResponse refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startOfDay = now.toLocalDate().atStartOfDay();
+        LocalDateTime startOfMonth = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+
+        DashboardTotals totals = orderRepository.getDashboardTotals(
+                startOfMonth.minusMonths(1), startOfMonth, startOfDay, now);
+
+        DashboardStatsResponse stats = new DashboardStatsResponse();
+
+        stats.setTotalRevenue(totals.getCurrentMonthRevenue());
+        stats.setRevenueChange(calculatePercentageChange(totals.getCurrentMonthRevenue(), totals.getLastMonthRevenue()));
+
+        stats.setTotalOrders(totals.getCurrentMonthOrders());
+        stats.setOrdersChange(calculatePercentageChange(
+                BigDecimal.valueOf(totals.getCurrentMonthOrders()),
+                BigDecimal.valueOf(totals.getLastMonthOrders())));
+
+        stats.setTotalCustomers(totals.getCurrentMonthCustomers());
+        stats.setCustomersChange(calculatePercentageChange(
+                BigDecimal.valueOf(totals.getCurrentMonthCustomers()),
+                BigDecimal.valueOf(totals.getLastMonthCustomers())));
+
+        stats.setTotalProducts(totals.getTotalProducts());
+        stats.setLowStockProducts(totals.getLowStockProducts());
+        stats.setOutOfStockProducts(totals.getOutOfStockProducts());
+
+        stats.setPendingOrders(totals.getPendingOrders());
+        stats.setProcessingOrders(totals.getProcessingOrders());
+        stats.setCompletedOrders(totals.getCompletedOrders());
+
+        stats.setTodayRevenue(totals.getTodayRevenue());
+        stats.setTodayOrders(totals.getTodayOrders());
+        stats.setAsOf(now);
+
+        snapshot = stats;
+        log.debug("Dashboard snapshot refreshed in {} ms",
+                Duration.between(now, LocalDateTime.now()).toMillis());
+        return stats;
+    }
+
+    private double calculatePercentageChange(BigDecimal current, BigDecimal previous) {
+        if (previous == null || previous.compareTo(BigDecimal.ZERO) == 0) {
+            return current.compareTo(BigDecimal.ZERO) > 0 ? 100.0 : 0.0;
+        }
+
+        BigDecimal change = current.subtract(previous)
+                .divide(previous, 4, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100));
+
+        return change.doubleValue();
+    }
+}
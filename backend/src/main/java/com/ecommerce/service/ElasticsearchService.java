@@ -1,15 +1,399 @@
 package com.ecommerce.service;
 
 import com.ecommerce.entity.Product;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.projection.ProductSearchView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import java.util.Collections;
-import java.util.List;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Embedded, memory-resident product search index.
+ *
+ * Products are tokenized into an inverted index (term -> product -> weighted term frequency)
+ * and queries are ranked with BM25. Every query token must match a product either exactly
+ * or as a prefix of an indexed term, so "hamm dri" finds "hammer drill".
+ * The index is built from the database on startup and kept current by
+ * {@link #indexProduct}, {@link #updateProduct} and {@link #deleteProduct}, which apply after the
+ * caller's transaction commits; products those change while the build runs keep their newer state
+ * rather than the build's. A failed build leaves the index unavailable and searches use the database.
+ */
 @Service
+@RequiredArgsConstructor
+@Slf4j
 public class ElasticsearchService {
-    public boolean isAvailable() { return false; }
-    public List<Long> searchProducts(String searchTerm) { return Collections.emptyList(); }
-    public void indexProduct(Product product) {}
-    public void updateProduct(Product product) {}
-    public void deleteProduct(Long id) {}
-}
\ No newline at end of file
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_MATCH_WEIGHT = 0.7;
+
+    // Field boosts applied to term frequencies
+    private static final float NAME_BOOST = 3.0f;
+    private static final float IDENTIFIER_BOOST = 4.0f;
+    private static final float BRAND_BOOST = 2.0f;
+    private static final float DESCRIPTION_BOOST = 1.0f;
+
+    private final ProductRepository productRepository;
+
+    @Value("${app.search.max-hits:500}")
+    private int maxHits;
+
+    @Value("${app.search.min-prefix-length:2}")
+    private int minPrefixLength;
+
+    @Value("${app.search.max-prefix-expansions:64}")
+    private int maxPrefixExpansions;
+
+    @Value("${app.search.index-batch-size:1000}")
+    private int indexBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (productId -> weighted term frequency)
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+
+    // productId -> indexed terms, needed to remove stale postings on update/delete
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+
+    private double totalDocumentLength;
+
+    // Ids indexed or deleted since the running build started; null when no build is running
+    private Set<Long> changedDuringBuild;
+
+    private volatile boolean available;
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildIndex() {
+        long startTime = System.currentTimeMillis();
+        long lastId = 0L;
+        int indexed = 0;
+        boolean built = false;
+
+        lock.writeLock().lock();
+        try {
+            available = false;
+            changedDuringBuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            List<ProductSearchView> batch;
+            do {
+                batch = productRepository.findSearchViewsAfter(lastId, PageRequest.of(0, indexBatchSize));
+
+                lock.writeLock().lock();
+                try {
+                    for (ProductSearchView view : batch) {
+                        // The batch may have been read before the change was indexed
+                        if (!changedDuringBuild.contains(view.getId())) {
+                            addDocument(view.getId(), view.getName(), view.getDescription(),
+                                    view.getSku(), view.getPartNumber(), view.getBrand());
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                    indexed += batch.size();
+                }
+            } while (batch.size() == indexBatchSize);
+            built = true;
+        } catch (RuntimeException ex) {
+            log.error("Search index build failed after {} products; searches use the database", indexed, ex);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changedDuringBuild = null;
+                available = built;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        if (built) {
+            log.info("Search index built: {} products, {} terms in {} ms",
+                    indexed, postings.size(), System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Returns ids of matching products ordered by descending relevance, capped at
+     * {@code app.search.max-hits}.
+     */
+    public List<Long> searchProducts(String searchTerm) {
+        List<String> queryTokens = new ArrayList<>(new LinkedHashSet<>(tokenize(searchTerm)));
+        if (queryTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            double averageLength = totalDocumentLength / documents.size();
+            Map<Long, Double> scores = null;
+
+            for (String token : queryTokens) {
+                Map<Long, Double> tokenScores = scoreToken(token, averageLength);
+
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    // Every query token has to match
+                    Map<Long, Double> merged = new HashMap<>();
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        Double tokenScore = tokenScores.get(entry.getKey());
+                        if (tokenScore != null) {
+                            merged.put(entry.getKey(), entry.getValue() + tokenScore);
+                        }
+                    }
+                    scores = merged;
+                }
+
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            return topHits(scores);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void indexProduct(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        afterCommit(() -> applyProduct(product));
+    }
+
+    public void updateProduct(Product product) {
+        indexProduct(product);
+    }
+
+    public void deleteProduct(Long id) {
+        afterCommit(() -> removeProduct(id));
+    }
+
+    // Index changes become visible with the database change, not before it or after a rollback
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private void applyProduct(Product product) {
+        if (!Boolean.TRUE.equals(product.getActive())) {
+            removeProduct(product.getId());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            markChanged(product.getId());
+            addDocument(product.getId(), product.getName(), product.getDescription(),
+                    product.getSku(), product.getPartNumber(), product.getBrand());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeProduct(Long id) {
+        lock.writeLock().lock();
+        try {
+            markChanged(id);
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getIndexedProductCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Helper methods (callers hold the appropriate lock)
+
+    private void markChanged(Long id) {
+        if (changedDuringBuild != null) {
+            changedDuringBuild.add(id);
+        }
+    }
+
+    private Map<Long, Double> scoreToken(String token, double averageLength) {
+        Map<Long, Double> tokenScores = new HashMap<>();
+
+        accumulateTermScores(token, 1.0, averageLength, tokenScores);
+
+        if (token.length() >= minPrefixLength) {
+            int expansions = 0;
+            for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                if (++expansions > maxPrefixExpansions) {
+                    break;
+                }
+                accumulateTermScores(term, PREFIX_MATCH_WEIGHT, averageLength, tokenScores);
+            }
+        }
+
+        return tokenScores;
+    }
+
+    private void accumulateTermScores(String term, double weight, double averageLength,
+            Map<Long, Double> tokenScores) {
+        Map<Long, Float> termPostings = postings.get(term);
+        if (termPostings == null) {
+            return;
+        }
+
+        int documentCount = documents.size();
+        int documentFrequency = termPostings.size();
+        double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+        for (Map.Entry<Long, Float> posting : termPostings.entrySet()) {
+            double tf = posting.getValue();
+            double length = documents.get(posting.getKey()).length;
+            double score = weight * idf * (tf * (K1 + 1))
+                    / (tf + K1 * (1 - B + B * length / averageLength));
+
+            // A token matching several expansions in one product keeps its best match
+            tokenScores.merge(posting.getKey(), score, Math::max);
+        }
+    }
+
+    private List<Long> topHits(Map<Long, Double> scores) {
+        Comparator<Map.Entry<Long, Double>> byScore = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(byScore);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > maxHits) {
+                heap.poll();
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ids.add(heap.poll().getKey());
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    /**
+     * Indexes the product, replacing its previous postings and length if it was indexed already.
+     */
+    private void addDocument(Long id, String name, String description, String sku,
+            String partNumber, String brand) {
+        removeDocument(id);
+
+        Map<String, Float> termFrequencies = new HashMap<>();
+        addField(termFrequencies, name, NAME_BOOST);
+        addField(termFrequencies, brand, BRAND_BOOST);
+        addField(termFrequencies, description, DESCRIPTION_BOOST);
+        addIdentifier(termFrequencies, sku);
+        addIdentifier(termFrequencies, partNumber);
+
+        float length = 0;
+        for (Map.Entry<String, Float> entry : termFrequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(id, entry.getValue());
+            length += entry.getValue();
+        }
+
+        documents.put(id, new IndexedDocument(termFrequencies.keySet().toArray(new String[0]), length));
+        totalDocumentLength += length;
+    }
+
+    private void removeDocument(Long id) {
+        IndexedDocument document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+
+        for (String term : document.terms) {
+            Map<Long, Float> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(id);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalDocumentLength -= document.length;
+    }
+
+    private void addField(Map<String, Float> termFrequencies, String value, float boost) {
+        for (String token : tokenize(value)) {
+            termFrequencies.merge(token, boost, Float::sum);
+        }
+    }
+
+    private void addIdentifier(Map<String, Float> termFrequencies, String value) {
+        addField(termFrequencies, value, IDENTIFIER_BOOST);
+
+        // Also index the identifier without separators so "AB-1234" matches "ab1234"
+        if (value != null) {
+            String compact = value.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]", "");
+            if (!compact.isEmpty()) {
+                termFrequencies.merge(compact, IDENTIFIER_BOOST, Float::sum);
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class IndexedDocument {
+        private final String[] terms;
+        private final float length;
+
+        private IndexedDocument(String[] terms, float length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+}
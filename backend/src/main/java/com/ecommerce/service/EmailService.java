@@ -1,63 +1,101 @@
 package com.ecommerce.service;
 
+import com.ecommerce.entity.Invoice;
 import com.ecommerce.entity.Order;
 import com.ecommerce.entity.Product;
 import com.ecommerce.entity.User;
-// CHANGE THESE IMPORTS FROM javax TO jakarta
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
+import org.thymeleaf.exceptions.TemplateInputException;
 
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
+/**
+ * Renders emails and puts them in the mail queue; {@link MailDispatcher} delivers them.
+ * Templates are parsed once at startup and served from the Thymeleaf template cache afterwards.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    static final List<String> TEMPLATES = List.of("order-confirmation", "order-status-update", "order-cancellation",
+            "low-stock-alert", "welcome", "invoice", "email-verification", "password-reset",
+            "password-reset-success");
 
-    @Value("${spring.mail.from}")
-    private String fromEmail;
+    private final MailDispatcher mailDispatcher;
+    private final TemplateEngine templateEngine;
 
     @Value("${app.name}")
     private String appName;
 
+    /**
+     * Queues a notification email. Notifications are best effort: a failure to render or queue one is
+     * logged and does not fail the caller.
+     */
     public void sendEmail(String to, String subject, String template, Map<String, Object> variables) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                MimeMessage message = mailSender.createMimeMessage();
-                MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        try {
+            send(to, subject, template, variables);
+        } catch (RuntimeException e) {
+            log.error("Failed to queue {} email to: {}", template, to, e);
+        }
+    }
 
-                helper.setFrom(fromEmail, appName);
-                helper.setTo(to);
-                helper.setSubject(subject);
+    /**
+     * Queues the invoice email with the stored PDF at {@code pdfPath} attached. Failures propagate, so a
+     * caller's transaction that records the invoice as sent rolls back with them.
+     */
+    public void sendInvoice(Invoice invoice, String to, String pdfPath) {
+        Context context = new Context();
+        context.setVariable("invoiceNumber", invoice.getInvoiceNumber());
+        context.setVariable("dueDate", invoice.getDueDate());
+        context.setVariable("totalAmount", invoice.getTotalAmount());
+
+        queue(to, "Invoice " + invoice.getInvoiceNumber(), "invoice", context,
+                invoice.getInvoiceNumber() + ".pdf", pdfPath);
+    }
 
-                Context context = new Context();
-                context.setVariables(variables);
-                context.setVariable("appName", appName);
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpTemplates() {
+        for (String template : TEMPLATES) {
+            try {
+                templateEngine.process(template, new Context());
+            } catch (TemplateInputException ex) {
+                log.warn("Email template {} could not be parsed: {}", template, ex.getMessage());
+            } catch (RuntimeException ex) {
+                // Parsed and cached; it only failed on the missing variables
+                log.debug("Email template {} warmed up with errors: {}", template, ex.getMessage());
+            }
+        }
+    }
 
-                String htmlContent = templateEngine.process(template, context);
-                helper.setText(htmlContent, true);
+    private void send(String to, String subject, String template, Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariables(variables);
+        queue(to, subject, template, context, null, null);
+    }
 
-                mailSender.send(message);
+    private void queue(String to, String subject, String template, Context context,
+            String attachmentName, String attachmentPath) {
+        context.setVariable("appName", appName);
+        // Rendered on the caller's thread, while lazy associations of the variables can still load
+        String htmlContent = templateEngine.process(template, context);
 
-                log.info("Email sent successfully to: {}", to);
-            } catch (Exception e) {
-                log.error("Failed to send email to: {}", to, e);
-            }
-        });
+        mailDispatcher.enqueue(to, subject, htmlContent, attachmentName, attachmentPath,
+                attachmentPath != null ? "application/pdf" : null);
     }
 
+    /**
+     * Queues the order confirmation. Order emails are sent from ORDER_EMAIL outbox events, so failures
+     * propagate and the outbox retries the event instead of marking it processed.
+     */
     public void sendOrderConfirmation(Order order) {
         Map<String, Object> variables = Map.of(
                 "userName", order.getUser().getFirstName(),
@@ -65,7 +103,7 @@ public class EmailService {
                 "order", order,
                 "totalAmount", order.getTotalAmount());
 
-        sendEmail(
+        send(
                 order.getUser().getEmail(),
                 "Order Confirmation - #" + order.getOrderNumber(),
                 "order-confirmation",
@@ -79,7 +117,7 @@ public class EmailService {
                 "status", order.getStatus(),
                 "trackingNumber", order.getTrackingNumber() != null ? order.getTrackingNumber() : "");
 
-        sendEmail(
+        send(
                 order.getUser().getEmail(),
                 "Order Status Update - #" + order.getOrderNumber(),
                 "order-status-update",
@@ -92,7 +130,7 @@ public class EmailService {
                 "orderNumber", order.getOrderNumber(),
                 "reason", order.getCancellationReason() != null ? order.getCancellationReason() : "Customer request");
 
-        sendEmail(
+        send(
                 order.getUser().getEmail(),
                 "Order Cancelled - #" + order.getOrderNumber(),
                 "order-cancellation",
@@ -11,11 +11,16 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 @Service
 public class FileStorageService {
@@ -54,6 +59,69 @@ public class FileStorageService {
         }
     }
     
+    /**
+     * Writes {@code content} under {@code subDir/fileName}. The file is written to a temporary name and
+     * moved into place, so readers never see a partial file.
+     */
+    public String storeFile(String subDir, String fileName, byte[] content) {
+        String cleanName = StringUtils.cleanPath(fileName);
+        if (cleanName.contains("..") || cleanName.contains("/")) {
+            throw new FileStorageException("Sorry! Filename contains invalid path sequence " + fileName);
+        }
+
+        try {
+            Path targetDir = this.fileStorageLocation.resolve(subDir);
+            Files.createDirectories(targetDir);
+            Path tempFile = Files.createTempFile(targetDir, cleanName, ".tmp");
+            try {
+                Files.write(tempFile, content);
+                Files.move(tempFile, targetDir.resolve(cleanName),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+            return subDir + "/" + cleanName;
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not store file " + cleanName + ". Please try again!", ex);
+        }
+    }
+
+    public boolean exists(String filePath) {
+        return Files.isRegularFile(resolve(filePath));
+    }
+
+    public long size(String filePath) {
+        try {
+            return Files.size(resolve(filePath));
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not read file " + filePath, ex);
+        }
+    }
+
+    public byte[] readFile(String filePath) {
+        try {
+            return Files.readAllBytes(resolve(filePath));
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not read file " + filePath, ex);
+        }
+    }
+
+    /**
+     * Copies a stored file to {@code out} with {@link FileChannel#transferTo}, without reading it
+     * into a heap buffer first.
+     */
+    public long transferTo(String filePath, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(filePath), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return size;
+        }
+    }
+
     public void deleteFile(String filePath) {
         try {
             Path fileLocation = this.fileStorageLocation.resolve(filePath);
@@ -76,4 +144,12 @@ public class FileStorageService {
             throw new RuntimeException("File not found " + fileName, ex);
         }
     }
-}
\ No newline at end of file
+
+    private Path resolve(String filePath) {
+        Path path = this.fileStorageLocation.resolve(filePath).normalize();
+        if (!path.startsWith(this.fileStorageLocation)) {
+            throw new FileStorageException("Sorry! Path is outside the storage directory " + filePath);
+        }
+        return path;
+    }
+}
@@ -17,7 +17,7 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional(readOnly = false)
+@Transactional(readOnly = true)
 public class FinanceService {
 
     private final OrderRepository orderRepository;
@@ -2,22 +2,27 @@
 package com.ecommerce.service;
 
 import com.ecommerce.dto.request.InventoryAdjustmentRequest;
+import com.ecommerce.dto.response.CursorPageResponse;
 import com.ecommerce.dto.response.InventoryResponse;
 import com.ecommerce.dto.response.InventoryStatsResponse;
 import com.ecommerce.entity.Product;
 import com.ecommerce.entity.User;
+import com.ecommerce.exception.InsufficientStockException;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.mapper.ProductMapper;
 import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.utils.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,26 +33,42 @@ public class InventoryService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final CacheService cacheService;
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public Page<InventoryResponse> getInventory(String search, Boolean lowStock, Pageable pageable) {
         // Simplified logic: Assuming ProductRepository has findAll or appropriate query
         Page<Product> products = productRepository.findAll(pageable);
         
-        return products.map(product -> {
-            InventoryResponse response = new InventoryResponse();
-            response.setProductId(product.getId());
-            response.setSku(product.getSku());
-            response.setProductName(product.getName());
-            response.setCurrentStock(product.getStockQuantity());
-            response.setMinStock(product.getMinStockLevel());
-            response.setStatus(product.getStockQuantity() <= product.getMinStockLevel() ? "LOW_STOCK" : "IN_STOCK");
-            if (product.getStockQuantity() == 0) response.setStatus("OUT_OF_STOCK");
-            return response;
-        });
+        return products.map(this::toInventoryResponse);
     }
 
-    @Transactional(readOnly = false)
+    /**
+     * Keyset-paginated inventory in product id order, without a count query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<InventoryResponse> getInventory(String cursor, int size) {
+        PageCursor after = PageCursor.decode(cursor);
+        List<Product> products = productRepository.findByIdGreaterThanOrderByIdAsc(
+                after != null ? after.getId() : 0L, PageRequest.of(0, size + 1)).getContent();
+
+        return CursorPageResponse.of(products, size, this::toInventoryResponse,
+                product -> PageCursor.of(product.getId()));
+    }
+
+    private InventoryResponse toInventoryResponse(Product product) {
+        InventoryResponse response = new InventoryResponse();
+        response.setProductId(product.getId());
+        response.setSku(product.getSku());
+        response.setProductName(product.getName());
+        response.setCurrentStock(product.getStockQuantity());
+        response.setMinStock(product.getMinStockLevel());
+        response.setStatus(product.getStockQuantity() <= product.getMinStockLevel() ? "LOW_STOCK" : "IN_STOCK");
+        if (product.getStockQuantity() == 0) response.setStatus("OUT_OF_STOCK");
+        return response;
+    }
+
+    @Transactional(readOnly = true)
     public InventoryStatsResponse getInventoryStats() {
         InventoryStatsResponse stats = new InventoryStatsResponse();
         stats.setTotalProducts(productRepository.count());
@@ -58,7 +79,7 @@ public class InventoryService {
         return stats;
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public List<InventoryResponse> getLowStockItems() {
         // This query needs to be implemented in repository or filtered in code
         // For simplicity returning empty
@@ -66,36 +87,73 @@ public class InventoryService {
     }
 
     public void adjustInventory(InventoryAdjustmentRequest request, User admin) {
-        Product product = productRepository.findById(request.getProductId())
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-        
-        int newQuantity = product.getStockQuantity() + request.getQuantity();
-        if (newQuantity < 0) throw new RuntimeException("Stock cannot be negative");
-        
-        product.setStockQuantity(newQuantity);
-        productRepository.save(product);
-        log.info("Inventory adjusted for product: {}", product.getName());
+        Long productId = request.getProductId();
+        int quantity = request.getQuantity();
+
+        int updated = quantity < 0
+                ? productRepository.decrementStock(productId, -quantity)
+                : productRepository.incrementStock(productId, quantity);
+        if (updated == 0) {
+            if (!productRepository.existsById(productId)) {
+                throw new ResourceNotFoundException("Product not found");
+            }
+            throw new RuntimeException("Stock cannot be negative");
+        }
+
+        cacheService.evictProduct(productId);
+        log.info("Inventory adjusted for product {} by {}", productId, quantity);
     }
 
     public void updateStock(Long productId, Integer quantity, boolean isDeduction) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-        
-        int current = product.getStockQuantity();
-        if (isDeduction) {
-            if (current < quantity) throw new RuntimeException("Insufficient stock");
-            product.setStockQuantity(current - quantity);
-        } else {
-            product.setStockQuantity(current + quantity);
+        int updated = isDeduction
+                ? productRepository.decrementStock(productId, quantity)
+                : productRepository.incrementStock(productId, quantity);
+        if (updated == 0) {
+            if (!productRepository.existsById(productId)) {
+                throw new ResourceNotFoundException("Product not found");
+            }
+            throw new InsufficientStockException("Insufficient stock for product " + productId);
         }
-        productRepository.save(product);
+        cacheService.evictProduct(productId);
     }
 
     public void reserveStock(Long productId, Integer quantity) {
-        updateStock(productId, quantity, true);
+        reserveStock(Map.of(productId, quantity));
     }
 
     public void releaseReservedStock(Long productId, Integer quantity) {
-        updateStock(productId, quantity, false);
+        releaseReservedStock(Map.of(productId, quantity));
+    }
+
+    /**
+     * Holds stock for several products in one statement without deducting it from on-hand stock;
+     * either every product is held or an {@link InsufficientStockException} is thrown and none are.
+     */
+    public void reserveStock(Map<Long, Integer> quantities) {
+        productRepository.reserveStock(quantities);
+        quantities.keySet().forEach(cacheService::evictProduct);
+    }
+
+    public void releaseReservedStock(Map<Long, Integer> quantities) {
+        productRepository.releaseReservedStock(quantities);
+        quantities.keySet().forEach(cacheService::evictProduct);
+    }
+
+    /**
+     * Turns held stock into a sale by deducting it from both on-hand and reserved stock.
+     */
+    public void commitReservedStock(Map<Long, Integer> quantities) {
+        productRepository.commitReservedStock(quantities);
+        quantities.keySet().forEach(cacheService::evictProduct);
+    }
+
+    public void deductStock(Map<Long, Integer> quantities) {
+        productRepository.decrementStock(quantities);
+        quantities.keySet().forEach(cacheService::evictProduct);
+    }
+
+    public void restoreStock(Map<Long, Integer> quantities) {
+        productRepository.incrementStock(quantities);
+        quantities.keySet().forEach(cacheService::evictProduct);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,143 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.Address;
+import com.ecommerce.entity.Invoice;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderItem;
+import com.ecommerce.entity.User;
+import com.ecommerce.utils.DateUtils;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Lays out an invoice as a PDF with iText.
+ *
+ * Font programs are parsed once and shared; only the per-document {@link PdfFont} wrappers, which iText
+ * ties to a single document, are created for each render. Thread-safe.
+ */
+@Component
+public class InvoicePdfRenderer {
+
+    private static final float[] ITEM_COLUMN_WIDTHS = {40, 14, 8, 12, 12, 14};
+    private static final String[] ITEM_HEADERS = {"Item", "SKU", "Qty", "Unit Price", "Tax", "Amount"};
+
+    private final FontProgram regularFont;
+    private final FontProgram boldFont;
+    private final String sellerName;
+
+    public InvoicePdfRenderer(@Value("${app.name}") String sellerName) throws IOException {
+        this.regularFont = FontProgramFactory.createFont(StandardFonts.HELVETICA);
+        this.boldFont = FontProgramFactory.createFont(StandardFonts.HELVETICA_BOLD);
+        this.sellerName = sellerName;
+    }
+
+    public byte[] render(Invoice invoice) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        PdfDocument pdf = new PdfDocument(new PdfWriter(out));
+        try (Document document = new Document(pdf, PageSize.A4)) {
+            PdfFont regular = PdfFontFactory.createFont(regularFont, PdfEncodings.WINANSI);
+            PdfFont bold = PdfFontFactory.createFont(boldFont, PdfEncodings.WINANSI);
+            document.setFont(regular).setFontSize(10);
+
+            Order order = invoice.getOrder();
+            document.add(new Paragraph(sellerName).setFont(bold).setFontSize(16));
+            document.add(new Paragraph("TAX INVOICE").setFont(bold).setFontSize(12));
+            document.add(new Paragraph("Invoice No: " + invoice.getInvoiceNumber() +
+                    "\nInvoice Date: " + DateUtils.formatForInvoice(invoice.getInvoiceDate()) +
+                    "\nDue Date: " + DateUtils.formatForInvoice(invoice.getDueDate()) +
+                    "\nOrder No: " + order.getOrderNumber()));
+
+            document.add(new Paragraph("Bill To").setFont(bold));
+            document.add(new Paragraph(billTo(order.getUser(), order.getBillingAddress() != null
+                    ? order.getBillingAddress() : order.getShippingAddress())));
+
+            Table items = new Table(UnitValue.createPercentArray(ITEM_COLUMN_WIDTHS)).useAllAvailableWidth();
+            for (String header : ITEM_HEADERS) {
+                items.addHeaderCell(new Cell().add(new Paragraph(header).setFont(bold)));
+            }
+            for (OrderItem item : order.getOrderItems()) {
+                items.addCell(item.getProductName());
+                items.addCell(item.getProductSku() != null ? item.getProductSku() : "");
+                items.addCell(amountCell(String.valueOf(item.getQuantity())));
+                items.addCell(amountCell(money(item.getUnitPrice())));
+                items.addCell(amountCell(money(item.getTaxAmount())));
+                items.addCell(amountCell(money(item.getTotalAmount())));
+            }
+            document.add(items);
+
+            Table totals = new Table(UnitValue.createPercentArray(new float[]{70, 30})).useAllAvailableWidth();
+            addTotal(totals, "Subtotal", invoice.getSubtotal());
+            addTotal(totals, "Discount", invoice.getDiscount());
+            addTotal(totals, "Shipping", invoice.getShippingCharge());
+            addTotal(totals, "CGST", invoice.getCgstAmount());
+            addTotal(totals, "SGST", invoice.getSgstAmount());
+            addTotal(totals, "IGST", invoice.getIgstAmount());
+            totals.addCell(new Cell().add(new Paragraph("Total (INR)").setFont(bold)));
+            totals.addCell(new Cell().add(new Paragraph(money(invoice.getTotalAmount())).setFont(bold))
+                    .setTextAlignment(TextAlignment.RIGHT));
+            addTotal(totals, "Paid", invoice.getPaidAmount());
+            addTotal(totals, "Balance Due", invoice.getBalanceAmount());
+            document.add(totals.setMarginTop(10));
+
+            if (invoice.getNotes() != null) {
+                document.add(new Paragraph(invoice.getNotes()).setMarginTop(10));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private String billTo(User user, Address address) {
+        StringBuilder text = new StringBuilder(user.getFirstName() + " " + user.getLastName());
+        if (user.getCompanyName() != null) {
+            text.append('\n').append(user.getCompanyName());
+        }
+        if (user.getGstNumber() != null) {
+            text.append("\nGSTIN: ").append(user.getGstNumber());
+        }
+        if (address != null) {
+            text.append('\n').append(address.getAddressLine1());
+            if (address.getAddressLine2() != null) {
+                text.append(", ").append(address.getAddressLine2());
+            }
+            text.append('\n').append(address.getCity()).append(", ").append(address.getState())
+                    .append(' ').append(address.getPostalCode());
+        }
+        return text.append('\n').append(user.getEmail()).toString();
+    }
+
+    private void addTotal(Table totals, String label, BigDecimal amount) {
+        if (amount == null || amount.signum() == 0) {
+            return;
+        }
+        totals.addCell(label);
+        totals.addCell(amountCell(money(amount)));
+    }
+
+    private Cell amountCell(String text) {
+        return new Cell().add(new Paragraph(text)).setTextAlignment(TextAlignment.RIGHT);
+    }
+
+    private String money(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).toPlainString() : "0.00";
+    }
+}
@@ -0,0 +1,394 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.response.InvoiceRunResponse;
+import com.ecommerce.entity.Order;
+import com.ecommerce.exception.InvalidInvoiceRunException;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.utils.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Month-end invoice runs for business customers.
+ *
+ * A run walks the month's uninvoiced business orders by id in chunks. Each chunk's invoices are
+ * inserted with one JDBC batch, and the run's checkpoint advances in the same transaction, so a run
+ * interrupted by a crash resumes after the last committed chunk without duplicating invoices.
+ * Invoices are created as DRAFT; after each chunk their PDFs are rendered in parallel on the invoice
+ * render executor and emailed at a limited rate, which moves them to SENT. Resuming also delivers any
+ * drafts left behind.
+ *
+ * The node executing a run holds a lease on it ({@code owner}, {@code heartbeat_at}) and renews it while it
+ * works. Other nodes take a run over only once its lease has expired, and each draft is claimed by the
+ * update that marks it sent, so an invoice is emailed once even if two nodes overlap on a run.
+ */
+@Service
+@Slf4j
+public class InvoiceRunService {
+
+    static final String STATUS_RUNNING = "RUNNING";
+    static final String STATUS_COMPLETED = "COMPLETED";
+    static final String STATUS_FAILED = "FAILED";
+
+    private static final String ELIGIBLE_ORDERS_SQL = "SELECT o.id, o.subtotal, o.cgst_amount, o.sgst_amount, " +
+            "o.igst_amount, o.total_tax, o.shipping_charge, o.discount, o.total_amount, o.payment_status " +
+            "FROM orders o JOIN users u ON u.id = o.user_id LEFT JOIN invoices i ON i.order_id = o.id " +
+            "WHERE u.customer_type = 'BUSINESS' AND o.created_at >= ? AND o.created_at < ? " +
+            "AND o.status NOT IN ('PENDING', 'CANCELLED', 'REFUNDED') AND i.id IS NULL AND o.id > ? " +
+            "ORDER BY o.id LIMIT ?";
+
+    private static final String INSERT_INVOICE_SQL = "INSERT INTO invoices (invoice_number, order_id, invoice_date, " +
+            "due_date, subtotal, cgst_amount, sgst_amount, igst_amount, total_tax, shipping_charge, discount, " +
+            "total_amount, paid_amount, balance_amount, status, invoice_run_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'DRAFT', ?)";
+
+    private static final RowMapper<InvoiceRunResponse> RUN_MAPPER = (rs, rowNum) -> {
+        InvoiceRunResponse run = new InvoiceRunResponse();
+        run.setId(rs.getLong("id"));
+        run.setPeriodStart(rs.getDate("period_start").toLocalDate());
+        run.setPeriodEnd(rs.getDate("period_end").toLocalDate());
+        run.setStatus(rs.getString("status"));
+        run.setLastOrderId(rs.getLong("last_order_id"));
+        run.setInvoicesCreated(rs.getInt("invoices_created"));
+        run.setInvoicesSent(rs.getInt("invoices_sent"));
+        run.setLastError(rs.getString("last_error"));
+        Timestamp startedAt = rs.getTimestamp("started_at");
+        Timestamp finishedAt = rs.getTimestamp("finished_at");
+        run.setStartedAt(startedAt != null ? startedAt.toLocalDateTime() : null);
+        run.setFinishedAt(finishedAt != null ? finishedAt.toLocalDateTime() : null);
+        if (run.getStartedAt() != null) {
+            long millis = Duration.between(run.getStartedAt(),
+                    run.getFinishedAt() != null ? run.getFinishedAt() : LocalDateTime.now()).toMillis();
+            run.setInvoicesPerSecond(millis > 0 ? run.getInvoicesCreated() * 1000.0 / millis : null);
+        }
+        return run;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InvoiceService invoiceService;
+    private final Executor runExecutor;
+    private final Executor renderExecutor;
+    private final RateLimiter emailRateLimiter;
+    private final Set<Long> activeRuns = ConcurrentHashMap.newKeySet();
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Counter invoicesCreated;
+    private final Counter invoicesSent;
+    private final Timer chunkTimer;
+
+    @Value("${app.invoices.runs.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.invoices.runs.resume-on-startup:true}")
+    private boolean resumeOnStartup;
+
+    @Value("${app.invoices.runs.lease-timeout:2m}")
+    private Duration leaseTimeout;
+
+    public InvoiceRunService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            InvoiceService invoiceService, MeterRegistry meterRegistry,
+            @Qualifier("invoiceRunExecutor") Executor runExecutor,
+            @Qualifier("invoiceRenderExecutor") Executor renderExecutor,
+            @Value("${app.invoices.runs.emails-per-second:10}") double emailsPerSecond) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.invoiceService = invoiceService;
+        this.runExecutor = runExecutor;
+        this.renderExecutor = renderExecutor;
+        this.emailRateLimiter = new RateLimiter(emailsPerSecond);
+
+        this.invoicesCreated = Counter.builder("invoice.runs.invoices.created")
+                .description("Invoices created by month-end invoice runs")
+                .register(meterRegistry);
+        this.invoicesSent = Counter.builder("invoice.runs.invoices.sent")
+                .description("Invoices emailed by month-end invoice runs")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("invoice.runs.chunk")
+                .description("Time to insert, render and email one chunk of a month-end invoice run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts a run for the business orders created in {@code month}; the run continues in the background.
+     */
+    public InvoiceRunResponse startRun(YearMonth month) {
+        if (!month.isBefore(YearMonth.now().plusMonths(1))) {
+            throw new InvalidInvoiceRunException("Cannot invoice a month that has not started: " + month);
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            // The run is inserted already leased to this node
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement("INSERT INTO invoice_runs (period_start, " +
+                        "period_end, status, owner, heartbeat_at, started_at) VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)",
+                        Statement.RETURN_GENERATED_KEYS);
+                ps.setDate(1, Date.valueOf(month.atDay(1)));
+                ps.setDate(2, Date.valueOf(month.atEndOfMonth()));
+                ps.setString(3, STATUS_RUNNING);
+                ps.setString(4, nodeId);
+                ps.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                return ps;
+            }, keyHolder);
+        } catch (DuplicateKeyException ex) {
+            // uk_invoice_runs_running_period allows one RUNNING run per month
+            throw new InvalidInvoiceRunException("An invoice run for " + month + " is already running");
+        }
+
+        Long runId = keyHolder.getKey().longValue();
+        submit(runId);
+        return getRun(runId);
+    }
+
+    /**
+     * Continues a failed or interrupted run from its checkpoint.
+     */
+    public InvoiceRunResponse resumeRun(Long runId) {
+        InvoiceRunResponse run = getRun(runId);
+        if (STATUS_COMPLETED.equals(run.getStatus()) || !acquireLease(runId)) {
+            throw new InvalidInvoiceRunException("Invoice run " + runId + " is not resumable");
+        }
+
+        submit(runId);
+        return getRun(runId);
+    }
+
+    public InvoiceRunResponse getRun(Long runId) {
+        List<InvoiceRunResponse> runs = jdbcTemplate.query("SELECT * FROM invoice_runs WHERE id = ?", RUN_MAPPER, runId);
+        if (runs.isEmpty()) {
+            throw new ResourceNotFoundException("Invoice run not found: " + runId);
+        }
+        return runs.get(0);
+    }
+
+    public List<InvoiceRunResponse> getRecentRuns() {
+        return jdbcTemplate.query("SELECT * FROM invoice_runs ORDER BY id DESC LIMIT 20", RUN_MAPPER);
+    }
+
+    /**
+     * Renews the leases of the runs executing on this node, so long email rounds do not let them expire.
+     */
+    @Scheduled(fixedDelayString = "${app.invoices.runs.heartbeat-interval:30s}")
+    public void renewLeases() {
+        for (Long runId : activeRuns) {
+            if (!renewLease(runId)) {
+                log.warn("Lost the lease on invoice run {}, it stops at its next chunk", runId);
+            }
+        }
+    }
+
+    /**
+     * Runs left RUNNING by a node that crashed or shut down pick up again from their checkpoint once
+     * their lease has expired, including those of this node's previous start.
+     */
+    @Scheduled(fixedDelayString = "${app.invoices.runs.heartbeat-interval:30s}")
+    public void resumeInterruptedRuns() {
+        if (!resumeOnStartup) {
+            return;
+        }
+
+        for (Long runId : jdbcTemplate.queryForList("SELECT id FROM invoice_runs WHERE status = ? " +
+                "AND (owner IS NULL OR heartbeat_at < ?)", Long.class, STATUS_RUNNING, leaseExpiry())) {
+            if (acquireLease(runId)) {
+                log.info("Resuming interrupted invoice run {}", runId);
+                submit(runId);
+            }
+        }
+    }
+
+    /**
+     * Takes the lease on a run that is not completed and that no node holds a live lease on, and marks it RUNNING.
+     */
+    private boolean acquireLease(Long runId) {
+        try {
+            return jdbcTemplate.update("UPDATE invoice_runs SET status = ?, owner = ?, heartbeat_at = ?, " +
+                    "last_error = NULL, finished_at = NULL WHERE id = ? AND status <> ? " +
+                    "AND (owner IS NULL OR heartbeat_at < ?)", STATUS_RUNNING, nodeId,
+                    Timestamp.valueOf(LocalDateTime.now()), runId, STATUS_COMPLETED, leaseExpiry()) > 0;
+        } catch (DuplicateKeyException ex) {
+            // Another run for the same month is running
+            return false;
+        }
+    }
+
+    private boolean renewLease(Long runId) {
+        return jdbcTemplate.update("UPDATE invoice_runs SET heartbeat_at = ? WHERE id = ? AND owner = ? AND status = ?",
+                Timestamp.valueOf(LocalDateTime.now()), runId, nodeId, STATUS_RUNNING) > 0;
+    }
+
+    private boolean holdsLease(Long runId) {
+        if (renewLease(runId)) {
+            return true;
+        }
+        log.warn("Invoice run {} was taken over by another node, stopping here", runId);
+        return false;
+    }
+
+    private Timestamp leaseExpiry() {
+        return Timestamp.valueOf(LocalDateTime.now().minus(leaseTimeout));
+    }
+
+    private void submit(Long runId) {
+        if (!activeRuns.add(runId)) {
+            return;
+        }
+        try {
+            runExecutor.execute(() -> {
+                try {
+                    execute(runId);
+                } finally {
+                    activeRuns.remove(runId);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            activeRuns.remove(runId);
+            // Leaves the run for any node to resume
+            jdbcTemplate.update("UPDATE invoice_runs SET owner = NULL WHERE id = ? AND owner = ?", runId, nodeId);
+            throw ex;
+        }
+    }
+
+    private void execute(Long runId) {
+        InvoiceRunResponse run = getRun(runId);
+        long startTime = System.currentTimeMillis();
+        log.info("Invoice run {} for {} to {} started at order {}", runId, run.getPeriodStart(), run.getPeriodEnd(),
+                run.getLastOrderId());
+
+        try {
+            // Drafts committed before an interruption are delivered first
+            if (!deliverDrafts(runId)) {
+                return;
+            }
+
+            int created;
+            do {
+                if (!holdsLease(runId)) {
+                    return;
+                }
+                Timer.Sample sample = Timer.start();
+                created = insertChunk(runId, run.getPeriodStart(), run.getPeriodEnd());
+                boolean delivered = deliverDrafts(runId);
+                sample.stop(chunkTimer);
+                if (!delivered) {
+                    return;
+                }
+            } while (created == chunkSize);
+
+            jdbcTemplate.update("UPDATE invoice_runs SET status = ?, owner = NULL, finished_at = CURRENT_TIMESTAMP " +
+                    "WHERE id = ? AND owner = ?", STATUS_COMPLETED, runId, nodeId);
+            InvoiceRunResponse finished = getRun(runId);
+            log.info("Invoice run {} completed: {} invoices created, {} sent in {} ms", runId,
+                    finished.getInvoicesCreated(), finished.getInvoicesSent(), System.currentTimeMillis() - startTime);
+        } catch (RuntimeException ex) {
+            log.error("Invoice run {} failed, resume it to continue from the checkpoint", runId, ex);
+            String message = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getName();
+            jdbcTemplate.update("UPDATE invoice_runs SET status = ?, owner = NULL, last_error = ?, " +
+                    "finished_at = CURRENT_TIMESTAMP WHERE id = ? AND owner = ?", STATUS_FAILED,
+                    message.length() > 1000 ? message.substring(0, 1000) : message, runId, nodeId);
+        }
+    }
+
+    /**
+     * Inserts invoices for the next chunk of eligible orders and advances the checkpoint, atomically.
+     */
+    private int insertChunk(Long runId, LocalDate periodStart, LocalDate periodEnd) {
+        Integer inserted = transactionTemplate.execute(status -> {
+            Long checkpoint = jdbcTemplate.queryForObject("SELECT last_order_id FROM invoice_runs WHERE id = ? FOR UPDATE",
+                    Long.class, runId);
+            LocalDate dueDate = periodEnd.plusDays(invoiceService.getBusinessPaymentTermsDays());
+
+            List<Object[]> rows = jdbcTemplate.query(ELIGIBLE_ORDERS_SQL, (rs, rowNum) -> {
+                long orderId = rs.getLong(1);
+                BigDecimal total = rs.getBigDecimal(9) != null ? rs.getBigDecimal(9) : BigDecimal.ZERO;
+                boolean paid = Order.PaymentStatus.COMPLETED.name().equals(rs.getString(10));
+                return new Object[]{InvoiceService.invoiceNumber(periodEnd, orderId), orderId, Date.valueOf(periodEnd),
+                        Date.valueOf(dueDate), rs.getBigDecimal(2), rs.getBigDecimal(3), rs.getBigDecimal(4),
+                        rs.getBigDecimal(5), rs.getBigDecimal(6), rs.getBigDecimal(7), rs.getBigDecimal(8), total,
+                        paid ? total : BigDecimal.ZERO, paid ? BigDecimal.ZERO : total, runId};
+            }, Timestamp.valueOf(periodStart.atStartOfDay()), Timestamp.valueOf(periodEnd.plusDays(1).atStartOfDay()),
+                    checkpoint, chunkSize);
+
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            jdbcTemplate.batchUpdate(INSERT_INVOICE_SQL, rows);
+            jdbcTemplate.update("UPDATE invoice_runs SET last_order_id = ?, invoices_created = invoices_created + ? " +
+                    "WHERE id = ?", rows.get(rows.size() - 1)[1], rows.size(), runId);
+            return rows.size();
+        });
+
+        int count = inserted != null ? inserted : 0;
+        invoicesCreated.increment(count);
+        return count;
+    }
+
+    /**
+     * Renders the run's draft invoices in parallel, then emails them one by one at the configured rate.
+     * Returns false if the run's lease was lost.
+     */
+    private boolean deliverDrafts(Long runId) {
+        List<Long> drafts;
+        while (!(drafts = jdbcTemplate.queryForList("SELECT id FROM invoices WHERE invoice_run_id = ? " +
+                "AND status = 'DRAFT' ORDER BY id LIMIT ?", Long.class, runId, chunkSize)).isEmpty()) {
+            if (!holdsLease(runId)) {
+                return false;
+            }
+            List<CompletableFuture<String>> renders = new ArrayList<>(drafts.size());
+            for (Long invoiceId : drafts) {
+                renders.add(render(invoiceId));
+            }
+            CompletableFuture.allOf(renders.toArray(CompletableFuture[]::new)).join();
+
+            for (Long invoiceId : drafts) {
+                emailRateLimiter.acquire();
+                // False when another node already sent it
+                if (invoiceService.sendDraft(invoiceId)) {
+                    jdbcTemplate.update("UPDATE invoice_runs SET invoices_sent = invoices_sent + 1 WHERE id = ?", runId);
+                    invoicesSent.increment();
+                }
+            }
+        }
+        return true;
+    }
+
+    private CompletableFuture<String> render(Long invoiceId) {
+        try {
+            return CompletableFuture.supplyAsync(() -> invoiceService.renderPdf(invoiceId), renderExecutor);
+        } catch (RejectedExecutionException ex) {
+            // Render queue full: render on the run thread instead
+            return CompletableFuture.completedFuture(invoiceService.renderPdf(invoiceId));
+        }
+    }
+}
@@ -6,23 +6,262 @@ import com.ecommerce.dto.response.InvoiceResponse;
 import com.ecommerce.entity.Invoice;
 import com.ecommerce.entity.Order;
 import com.ecommerce.entity.User;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.repository.InvoiceRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Invoices and their PDFs.
+ *
+ * A PDF is rendered once per invoice version and kept in file storage; {@code Invoice.pdfUrl} names
+ * the file, and the file name carries the invoice's {@code updatedAt}, so any change to the invoice
+ * makes the stored PDF stale and the next request renders it again. New invoices are rendered in the
+ * background on the invoice render executor right after the order's invoice commits.
+ */
 @Service
+@Slf4j
 public class InvoiceService {
-    public Invoice generateInvoice(Order order) { return new Invoice(); }
-    public byte[] generateInvoicePdf(Long invoiceId) { return new byte[0]; }
+
+    private static final String PDF_DIR = "invoices";
+    private static final DateTimeFormatter NUMBER_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final InvoiceRepository invoiceRepository;
+    private final InvoicePdfRenderer pdfRenderer;
+    private final FileStorageService fileStorageService;
+    private final Executor renderExecutor;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.invoices.business-payment-terms-days:30}")
+    private int businessPaymentTermsDays;
+
+    @Value("${app.invoices.monthly-business-billing:true}")
+    private boolean monthlyBusinessBilling;
+
+    public InvoiceService(InvoiceRepository invoiceRepository, InvoicePdfRenderer pdfRenderer,
+            FileStorageService fileStorageService, @Qualifier("invoiceRenderExecutor") Executor renderExecutor,
+            EmailService emailService, PlatformTransactionManager transactionManager) {
+        this.invoiceRepository = invoiceRepository;
+        this.pdfRenderer = pdfRenderer;
+        this.fileStorageService = fileStorageService;
+        this.renderExecutor = renderExecutor;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class InvoicePdf {
+        private final String invoiceNumber;
+        private final String path;
+        private final long size;
+    }
+
+    static String invoiceNumber(LocalDate invoiceDate, Long orderId) {
+        return "INV-" + invoiceDate.format(NUMBER_DATE) + "-" + orderId;
+    }
+
+    public int getBusinessPaymentTermsDays() {
+        return businessPaymentTermsDays;
+    }
+
+    /**
+     * Business customers are invoiced by the month-end run rather than when the order is placed.
+     */
+    public boolean isBilledMonthly(User user) {
+        return monthlyBusinessBilling && user.getCustomerType() == User.CustomerType.BUSINESS;
+    }
+
+    /**
+     * Creates the invoice for an order from its totals and queues the PDF for rendering once the
+     * surrounding transaction commits.
+     */
+    public Invoice generateInvoice(Order order) {
+        LocalDate invoiceDate = LocalDate.now();
+        boolean paid = order.getPaymentStatus() == Order.PaymentStatus.COMPLETED;
+        BigDecimal total = order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+
+        Invoice invoice = new Invoice();
+        invoice.setInvoiceNumber(invoiceNumber(invoiceDate, order.getId()));
+        invoice.setOrder(order);
+        invoice.setInvoiceDate(invoiceDate);
+        invoice.setDueDate(order.getUser().getCustomerType() == User.CustomerType.BUSINESS
+                ? invoiceDate.plusDays(businessPaymentTermsDays) : invoiceDate);
+        invoice.setSubtotal(order.getSubtotal());
+        invoice.setCgstAmount(order.getCgstAmount());
+        invoice.setSgstAmount(order.getSgstAmount());
+        invoice.setIgstAmount(order.getIgstAmount());
+        invoice.setTotalTax(order.getTotalTax());
+        invoice.setShippingCharge(order.getShippingCharge());
+        invoice.setDiscount(order.getDiscount());
+        invoice.setTotalAmount(total);
+        invoice.setPaidAmount(paid ? total : BigDecimal.ZERO);
+        invoice.setBalanceAmount(paid ? BigDecimal.ZERO : total);
+        invoice.setStatus(paid ? Invoice.InvoiceStatus.PAID : Invoice.InvoiceStatus.SENT);
+
+        Invoice saved = invoiceRepository.save(invoice);
+        scheduleRender(saved.getId());
+        return saved;
+    }
+
+    /**
+     * Renders the invoice PDF in the background, after commit when called inside a transaction.
+     * A full render queue only delays the PDF until it is first downloaded.
+     */
+    public void scheduleRender(Long invoiceId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submitRender(invoiceId);
+                }
+            });
+        } else {
+            submitRender(invoiceId);
+        }
+    }
+
+    /**
+     * Returns the stored PDF for an invoice, rendering it first if it is missing or out of date.
+     */
+    public InvoicePdf getInvoicePdf(Long invoiceId) {
+        String path = renderIfStale(invoiceId);
+        Invoice invoice = invoiceRepository.findById(invoiceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Invoice not found"));
+        return new InvoicePdf(invoice.getInvoiceNumber(), path, fileStorageService.size(path));
+    }
+
+    public void writeInvoicePdf(InvoicePdf pdf, OutputStream out) throws IOException {
+        fileStorageService.transferTo(pdf.getPath(), out);
+    }
+
+    /**
+     * Makes sure the stored PDF is current and returns its path.
+     */
+    public String renderPdf(Long invoiceId) {
+        return renderIfStale(invoiceId);
+    }
+
     public Page<InvoiceResponse> getAllInvoices(String status, String search, LocalDate start, LocalDate end, Pageable pageable) { return Page.empty(); }
     public InvoiceResponse getInvoiceDetails(Long id) { return null; }
     public InvoiceResponse createInvoice(CreateInvoiceRequest request, User user) { return null; }
     public InvoiceResponse updateInvoice(Long id, UpdateInvoiceRequest request) { return null; }
-    public void sendInvoice(Long id, String email) {}
+
+    /**
+     * Emails the invoice PDF to {@code email}, or to the customer when it is blank, and moves a
+     * draft invoice to SENT.
+     */
+    public void sendInvoice(Long id, String email) {
+        String pdfPath = renderIfStale(id);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Invoice invoice = invoiceRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Invoice not found"));
+            String to = email != null && !email.isBlank() ? email : invoice.getOrder().getUser().getEmail();
+
+            emailService.sendInvoice(invoice, to, pdfPath);
+            if (invoice.getStatus() == Invoice.InvoiceStatus.DRAFT) {
+                // The status is not printed, so the stored PDF stays current
+                invoiceRepository.markSent(id);
+            }
+        });
+    }
+
+    /**
+     * Emails a draft invoice to the customer and moves it to SENT. Returns false, sending nothing, when the
+     * invoice is no longer a draft.
+     */
+    public boolean sendDraft(Long id) {
+        String pdfPath = renderIfStale(id);
+
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            // The guarded update claims the draft: a concurrent sender waits on the row lock, then updates nothing.
+            // The email is queued in the same transaction, so a failure to queue it leaves the invoice a draft.
+            if (invoiceRepository.markSent(id) == 0) {
+                return false;
+            }
+            Invoice invoice = invoiceRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Invoice not found"));
+            emailService.sendInvoice(invoice, invoice.getOrder().getUser().getEmail(), pdfPath);
+            return true;
+        }));
+    }
+
     public InvoiceResponse markAsPaid(Long id, Map<String, Object> details) { return null; }
     public List<InvoiceResponse> getPendingInvoices() { return List.of(); }
     public List<InvoiceResponse> getOverdueInvoices() { return List.of(); }
-}
\ No newline at end of file
+
+    private void submitRender(Long invoiceId) {
+        try {
+            renderExecutor.execute(() -> {
+                try {
+                    renderIfStale(invoiceId);
+                } catch (RuntimeException ex) {
+                    log.warn("Background render of invoice {} failed: {}", invoiceId, ex.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            log.warn("Invoice render queue full, invoice {} will be rendered on first download", invoiceId);
+        }
+    }
+
+    /**
+     * Renders and stores the PDF unless the stored one matches the current version of the invoice.
+     * Concurrent renders of the same version write the same file name, and the store is atomic.
+     */
+    private String renderIfStale(Long invoiceId) {
+        return transactionTemplate.execute(status -> {
+            Invoice invoice = invoiceRepository.findById(invoiceId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Invoice not found"));
+
+            String fileName = invoice.getInvoiceNumber() + "-" + version(invoice) + ".pdf";
+            String path = PDF_DIR + "/" + fileName;
+            if (path.equals(invoice.getPdfUrl()) && fileStorageService.exists(path)) {
+                return path;
+            }
+
+            long startTime = System.currentTimeMillis();
+            fileStorageService.storeFile(PDF_DIR, fileName, pdfRenderer.render(invoice));
+
+            // Leaves updated_at alone so that recording the file does not make it stale again
+            if (invoiceRepository.updatePdfUrl(invoiceId, path, invoice.getUpdatedAt()) > 0
+                    && invoice.getPdfUrl() != null && !invoice.getPdfUrl().equals(path)) {
+                fileStorageService.deleteFile(invoice.getPdfUrl());
+            }
+
+            log.debug("Rendered invoice {} in {} ms", invoice.getInvoiceNumber(), System.currentTimeMillis() - startTime);
+            return path;
+        });
+    }
+
+    // Microseconds, the precision of updated_at, so changes within the same second get a new file
+    private long version(Invoice invoice) {
+        return invoice.getUpdatedAt() != null
+                ? ChronoUnit.MICROS.between(Instant.EPOCH, invoice.getUpdatedAt().toInstant(ZoneOffset.UTC))
+                : 0;
+    }
+}
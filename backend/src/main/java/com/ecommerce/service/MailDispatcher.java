@@ -0,0 +1,344 @@
+package com.ecommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UnsupportedEncodingException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the messages {@link EmailService} puts in {@code mail_queue}.
+ *
+ * Each poll claims a batch of up to {@code messages-per-connection} due messages for every free SMTP session,
+ * at most {@code threads} at a time, and hands the batches to the mail executor without waiting for them;
+ * a batch is sent over a single SMTP connection. Failed messages are retried with exponential backoff
+ * until {@code app.mail.max-attempts} is reached.
+ */
+@Service
+@Slf4j
+public class MailDispatcher {
+
+    private static final String INSERT_SQL = "INSERT INTO mail_queue (recipient, subject, body, attachment_name, " +
+            "attachment_path, attachment_type, status, next_attempt_at) VALUES (?, ?, ?, ?, ?, ?, 'PENDING', ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JavaMailSender mailSender;
+    private final FileStorageService fileStorageService;
+    private final Executor mailExecutor;
+    private final Semaphore sessionSlots;
+    private final AtomicLong queuedMessages = new AtomicLong();
+    private final Counter sentMessages;
+    private final Counter retriedMessages;
+    private final Counter failedMessages;
+    private final Timer sessionTimer;
+    private final Timer deliveryLatency;
+
+    @Value("${spring.mail.from}")
+    private String fromEmail;
+
+    @Value("${app.name}")
+    private String appName;
+
+    @Value("${app.mail.messages-per-connection:50}")
+    private int messagesPerConnection;
+
+    @Value("${app.mail.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.retry-backoff:30s}")
+    private Duration retryBackoff;
+
+    @Value("${app.mail.max-retry-backoff:1h}")
+    private Duration maxRetryBackoff;
+
+    @Value("${app.mail.claim-timeout:10m}")
+    private Duration claimTimeout;
+
+    @Value("${app.mail.retention:7d}")
+    private Duration retention;
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class QueuedMail {
+        private final Long id;
+        private final String recipient;
+        private final String subject;
+        private final String body;
+        private final String attachmentName;
+        private final String attachmentPath;
+        private final String attachmentType;
+        private final LocalDateTime createdAt;
+    }
+
+    public MailDispatcher(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            JavaMailSender mailSender, FileStorageService fileStorageService,
+            @Qualifier("mailExecutor") Executor mailExecutor, MeterRegistry meterRegistry,
+            @Value("${app.mail.threads:2}") int threads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.mailSender = mailSender;
+        this.fileStorageService = fileStorageService;
+        this.mailExecutor = mailExecutor;
+        this.sessionSlots = new Semaphore(threads);
+
+        Gauge.builder("mail.queue.depth", queuedMessages, AtomicLong::get)
+                .description("Emails waiting in the mail queue")
+                .register(meterRegistry);
+        this.sentMessages = Counter.builder("mail.sent").register(meterRegistry);
+        this.retriedMessages = Counter.builder("mail.retried").register(meterRegistry);
+        this.failedMessages = Counter.builder("mail.failed")
+                .description("Emails abandoned after the maximum number of attempts")
+                .register(meterRegistry);
+        this.sessionTimer = Timer.builder("mail.send")
+                .description("Time to send one batch of emails over a single SMTP connection")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("mail.delivery.latency")
+                .description("Time from queueing an email to handing it to the SMTP server")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a rendered message. Inside a transaction the message is only sent if the transaction commits.
+     */
+    public void enqueue(String to, String subject, String body, String attachmentName, String attachmentPath,
+            String attachmentType) {
+        jdbcTemplate.update(INSERT_SQL, to, subject, body, attachmentName, attachmentPath, attachmentType,
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Runs on the shared scheduler, so it only claims; the SMTP sessions run on the mail executor.
+     * A session slot is held from the claim until its batch is sent, which bounds the messages in flight.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.poll-interval:1s}")
+    public void dispatch() {
+        while (sessionSlots.tryAcquire()) {
+            List<QueuedMail> batch;
+            try {
+                batch = claim(messagesPerConnection);
+            } catch (RuntimeException ex) {
+                sessionSlots.release();
+                throw ex;
+            }
+            if (batch.isEmpty()) {
+                sessionSlots.release();
+                break;
+            }
+
+            try {
+                mailExecutor.execute(() -> {
+                    try {
+                        sendBatch(batch);
+                    } finally {
+                        sessionSlots.release();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                sessionSlots.release();
+                release(batch);
+                break;
+            }
+        }
+
+        queuedMessages.set(countQueued());
+    }
+
+    @Scheduled(cron = "${app.mail.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        int purged = jdbcTemplate.update("DELETE FROM mail_queue WHERE status = 'SENT' AND sent_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+        if (purged > 0) {
+            log.info("Purged {} sent emails from the mail queue", purged);
+        }
+    }
+
+    private List<QueuedMail> claim(int limit) {
+        List<QueuedMail> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            // SKIP LOCKED: rows being claimed by another node are left to it
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM mail_queue " +
+                            "WHERE (status = 'PENDING' AND next_attempt_at <= ?) OR (status = 'SENDING' AND claimed_at < ?) " +
+                            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED", Long.class,
+                    Timestamp.valueOf(now), Timestamp.valueOf(now.minus(claimTimeout)), limit);
+            if (ids.isEmpty()) {
+                return List.<QueuedMail>of();
+            }
+
+            String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            List<Object> args = new ArrayList<>(ids.size() + 1);
+            args.add(Timestamp.valueOf(now));
+            args.addAll(ids);
+            jdbcTemplate.update("UPDATE mail_queue SET status = 'SENDING', claimed_at = ?, attempts = attempts + 1 " +
+                    "WHERE id IN (" + in + ")", args.toArray());
+
+            return jdbcTemplate.query("SELECT id, recipient, subject, body, attachment_name, attachment_path, " +
+                            "attachment_type, created_at FROM mail_queue WHERE id IN (" + in + ") ORDER BY id",
+                    (rs, rowNum) -> new QueuedMail(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                            rs.getString(5), rs.getString(6), rs.getString(7), rs.getTimestamp(8).toLocalDateTime()),
+                    ids.toArray());
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    private void sendBatch(List<QueuedMail> batch) {
+        Map<MimeMessage, QueuedMail> messages = new IdentityHashMap<>();
+        for (QueuedMail mail : batch) {
+            try {
+                messages.put(toMimeMessage(mail), mail);
+            } catch (MessagingException | UnsupportedEncodingException | RuntimeException ex) {
+                recordFailure(mail, ex);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        long startTime = System.nanoTime();
+        try {
+            // One connection for the whole batch; a failed message does not abort the others
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException ex) {
+            failures = ex.getFailedMessages();
+            if (failures.isEmpty()) {
+                failures = allFailed(messages, ex);
+            }
+        } catch (MailException ex) {
+            // Could not connect or authenticate; nothing was sent
+            failures = allFailed(messages, ex);
+        } finally {
+            sessionTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+
+        List<Long> sent = new ArrayList<>(messages.size());
+        for (Map.Entry<MimeMessage, QueuedMail> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure != null) {
+                recordFailure(entry.getValue(), failure);
+            } else {
+                sent.add(entry.getValue().getId());
+                deliveryLatency.record(Duration.between(entry.getValue().getCreatedAt(), LocalDateTime.now()));
+            }
+        }
+        markSent(sent);
+    }
+
+    private MimeMessage toMimeMessage(QueuedMail mail) throws MessagingException, UnsupportedEncodingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, mail.getAttachmentPath() != null, "UTF-8");
+
+        helper.setFrom(fromEmail, appName);
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getBody(), true);
+        if (mail.getAttachmentPath() != null) {
+            helper.addAttachment(mail.getAttachmentName(),
+                    new ByteArrayResource(fileStorageService.readFile(mail.getAttachmentPath())),
+                    mail.getAttachmentType());
+        }
+        return message;
+    }
+
+    private Map<Object, Exception> allFailed(Map<MimeMessage, QueuedMail> messages, Exception ex) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        messages.keySet().forEach(message -> failures.put(message, ex));
+        return failures;
+    }
+
+    private void markSent(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.update("UPDATE mail_queue SET status = 'SENT', sent_at = ?, last_error = NULL WHERE id IN (" +
+                String.join(", ", Collections.nCopies(ids.size(), "?")) + ")",
+                prepend(Timestamp.valueOf(LocalDateTime.now()), ids));
+        sentMessages.increment(ids.size());
+        log.debug("Sent {} emails", ids.size());
+    }
+
+    private void recordFailure(QueuedMail mail, Exception ex) {
+        String error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getName();
+        if (error.length() > 1000) {
+            error = error.substring(0, 1000);
+        }
+
+        int attempts = jdbcTemplate.queryForObject("SELECT attempts FROM mail_queue WHERE id = ?", Integer.class,
+                mail.getId());
+        if (attempts >= maxAttempts) {
+            jdbcTemplate.update("UPDATE mail_queue SET status = 'FAILED', last_error = ? WHERE id = ?",
+                    error, mail.getId());
+            failedMessages.increment();
+            log.error("Giving up on email {} to {} after {} attempts: {}", mail.getId(), mail.getRecipient(),
+                    attempts, error);
+            return;
+        }
+
+        jdbcTemplate.update("UPDATE mail_queue SET status = 'PENDING', next_attempt_at = ?, last_error = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().plus(backoff(attempts))), error, mail.getId());
+        retriedMessages.increment();
+        log.warn("Email {} to {} failed (attempt {}), will retry: {}", mail.getId(), mail.getRecipient(),
+                attempts, error);
+    }
+
+    private void release(List<QueuedMail> batch) {
+        List<Long> ids = batch.stream().map(QueuedMail::getId).toList();
+        // The attempt never started
+        jdbcTemplate.update("UPDATE mail_queue SET status = 'PENDING', attempts = attempts - 1 WHERE id IN (" +
+                String.join(", ", Collections.nCopies(ids.size(), "?")) + ")", ids.toArray());
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+
+    private long countQueued() {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM mail_queue WHERE status IN ('PENDING', 'SENDING')", Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static Object[] prepend(Object first, List<Long> rest) {
+        Object[] args = new Object[rest.size() + 1];
+        args[0] = first;
+        for (int i = 0; i < rest.size(); i++) {
+            args[i + 1] = rest.get(i);
+        }
+        return args;
+    }
+}
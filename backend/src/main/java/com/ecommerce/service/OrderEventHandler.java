@@ -0,0 +1,94 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OutboxEvent;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Delivers the side effects of order changes recorded by {@link OrderService}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderEventHandler implements OutboxEventHandler {
+
+    static final String EMAIL_CONFIRMATION = "CONFIRMATION";
+    static final String EMAIL_CANCELLATION = "CANCELLATION";
+    static final String EMAIL_STATUS_UPDATE = "STATUS_UPDATE";
+
+    private final OrderRepository orderRepository;
+    private final InvoiceService invoiceService;
+    private final LoyaltyService loyaltyService;
+    private final EmailService emailService;
+    private final SmsService smsService;
+    private final NotificationService notificationService;
+
+    @Override
+    public Set<OutboxEvent.Type> getEventTypes() {
+        return EnumSet.of(OutboxEvent.Type.ORDER_INVOICE, OutboxEvent.Type.ORDER_LOYALTY_POINTS,
+                OutboxEvent.Type.ORDER_EMAIL, OutboxEvent.Type.ORDER_SMS, OutboxEvent.Type.ORDER_NOTIFICATION);
+    }
+
+    @Override
+    public void handle(OutboxEvent event, Map<String, Object> payload) {
+        Order order = orderRepository.findById(event.getAggregateId())
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + event.getAggregateId()));
+
+        switch (event.getEventType()) {
+            case ORDER_INVOICE:
+                // Invoice creation commits together with the event, so a retry never creates a second one
+                if (order.getInvoice() == null && !invoiceService.isBilledMonthly(order.getUser())) {
+                    order.setInvoice(invoiceService.generateInvoice(order));
+                    orderRepository.save(order);
+                }
+                break;
+            case ORDER_LOYALTY_POINTS:
+                int points = ((Number) payload.get("points")).intValue();
+                String description = (String) payload.get("description");
+                if (points >= 0) {
+                    loyaltyService.addPoints(order.getUser().getId(), points, description);
+                } else {
+                    loyaltyService.deductPoints(order.getUser().getId(), -points, description);
+                }
+                break;
+            case ORDER_EMAIL:
+                sendEmail(order, (String) payload.get("template"));
+                break;
+            case ORDER_SMS:
+                if (order.getUser().getPhoneNumber() != null) {
+                    smsService.sendOrderConfirmationSMS(order);
+                }
+                break;
+            case ORDER_NOTIFICATION:
+                notificationService.createNotification(
+                        order.getUser(),
+                        (String) payload.get("title"),
+                        (String) payload.get("message"),
+                        "ORDER",
+                        order.getId());
+                break;
+            default:
+                log.warn("Unsupported outbox event type {}", event.getEventType());
+        }
+    }
+
+    private void sendEmail(Order order, String template) {
+        if (EMAIL_CONFIRMATION.equals(template)) {
+            emailService.sendOrderConfirmation(order);
+        } else if (EMAIL_CANCELLATION.equals(template)) {
+            emailService.sendOrderCancellation(order);
+        } else if (EMAIL_STATUS_UPDATE.equals(template)) {
+            emailService.sendOrderStatusUpdate(order);
+        } else {
+            throw new IllegalArgumentException("Unknown order email template: " + template);
+        }
+    }
+}
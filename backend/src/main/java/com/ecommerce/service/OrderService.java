@@ -5,8 +5,8 @@ import com.ecommerce.service.InvoiceService;
 import com.ecommerce.service.NotificationService;
 import com.ecommerce.service.PaymentService;
 import com.ecommerce.service.ShippingService;
-import com.ecommerce.service.LoyaltyService;
 import com.ecommerce.dto.request.CreateOrderRequest;
+import com.ecommerce.dto.response.CursorPageResponse;
 import com.ecommerce.dto.response.OrderResponse;
 import com.ecommerce.dto.response.OrderSummaryResponse;
 import com.ecommerce.entity.*;
@@ -14,9 +14,11 @@ import com.ecommerce.exception.InsufficientStockException;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.mapper.OrderMapper;
 import com.ecommerce.repository.*;
+import com.ecommerce.utils.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -36,20 +38,18 @@ public class OrderService {
     private final ReviewRepository reviewRepository;
     private final CouponUsageRepository couponUsageRepository;
     private final OrderStatusHistoryRepository orderStatusHistoryRepository;
-    private final SmsService smsService;
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final AddressRepository addressRepository;
     private final CouponRepository couponRepository;
     private final OrderMapper orderMapper;
-    private final ProductService productService;
     private final InventoryService inventoryService;
+    private final StockReservationService stockReservationService;
     private final InvoiceService invoiceService;
-    private final EmailService emailService;
     private final NotificationService notificationService;
+    private final OutboxService outboxService;
     private final PaymentService paymentService;
     private final ShippingService shippingService;
-    private final LoyaltyService loyaltyService;
 
     public OrderResponse createOrder(CreateOrderRequest request, User user) {
         log.info("Creating order for user: {}", user.getEmail());
@@ -79,15 +79,16 @@ public class OrderService {
         BigDecimal subtotal = BigDecimal.ZERO;
         BigDecimal totalTax = BigDecimal.ZERO;
 
+        Map<Long, Integer> reservations = new TreeMap<>();
         for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+            reservations.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+        }
 
-            // Check stock availability
-            if (!productService.checkAvailability(product.getId(), itemRequest.getQuantity())) {
-                throw new InsufficientStockException(
-                        "Insufficient stock for product: " + product.getName());
-            }
+        // Load, lock and check every product of the order up front
+        Map<Long, Product> products = lockProductsForCheckout(reservations);
+
+        for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
+            Product product = products.get(itemRequest.getProductId());
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
@@ -116,9 +117,6 @@ public class OrderService {
             orderItems.add(orderItem);
             subtotal = subtotal.add(itemTotal);
             totalTax = totalTax.add(taxAmount);
-
-            // Reserve stock
-            inventoryService.reserveStock(product.getId(), itemRequest.getQuantity());
         }
 
         order.setOrderItems(orderItems);
@@ -169,6 +167,9 @@ public class OrderService {
         // Save order
         order = orderRepository.save(order);
 
+        // Hold stock for all items in one guarded update until payment resolves
+        stockReservationService.reserve(order, reservations);
+
         // Process payment
         if (order.getPaymentMethod() != Order.PaymentMethod.COD) {
             PaymentResult paymentResult = paymentService.processPayment(order, request.getPaymentDetails());
@@ -176,33 +177,29 @@ public class OrderService {
                 order.setPaymentStatus(Order.PaymentStatus.COMPLETED);
                 order.setStatus(Order.OrderStatus.CONFIRMED);
                 order.setPaymentTransactionId(paymentResult.getTransactionId());
+                stockReservationService.commit(order);
             } else {
                 order.setPaymentStatus(Order.PaymentStatus.FAILED);
                 order.setStatus(Order.OrderStatus.CANCELLED);
                 // Release reserved stock
-                releaseReservedStock(order);
+                stockReservationService.release(order);
                 throw new RuntimeException("Payment failed: " + paymentResult.getMessage());
             }
         } else {
             order.setStatus(Order.OrderStatus.CONFIRMED);
+            stockReservationService.commit(order);
         }
 
-        // Update stock
-        for (OrderItem item : orderItems) {
-            productService.updateStock(item.getProduct().getId(), item.getQuantity(), true);
-        }
-
-        // Generate invoice
-        Invoice invoice = invoiceService.generateInvoice(order);
-        order.setInvoice(invoice);
-
-        // Add loyalty points
-        int loyaltyPoints = calculateLoyaltyPoints(totalAmount);
-        loyaltyService.addPoints(user.getId(), loyaltyPoints, "Order #" + order.getOrderNumber());
-
-        // Send notifications
+        // Invoice, loyalty points and notifications are recorded in the outbox and
+        // delivered after commit, so checkout only pays for the order insert
+        publishOrderEvent(order, OutboxEvent.Type.ORDER_INVOICE, "invoice", Map.of());
+        publishOrderEvent(order, OutboxEvent.Type.ORDER_LOYALTY_POINTS, "loyalty-award", Map.of(
+                "points", calculateLoyaltyPoints(totalAmount),
+                "description", "Order #" + order.getOrderNumber()));
         sendOrderConfirmation(order);
 
+        recordSalesChange(order, null);
+
         // Create order status history
         createStatusHistory(order, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, null);
 
@@ -211,37 +208,57 @@ public class OrderService {
         return orderMapper.toResponse(order);
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public Page<OrderResponse> getUserOrders(Long userId, String status, Pageable pageable) {
-        Page<Order> orders;
+        Page<Long> ids = orderRepository.findUserOrderIds(userId, parseStatus(status), pageable);
+        return orderRepository.findAllWithDetails(ids).map(orderMapper::toResponse);
+    }
 
-        if (status != null && !status.isEmpty()) {
-            Order.OrderStatus orderStatus = Order.OrderStatus.valueOf(status);
-            orders = orderRepository.findByUserIdAndStatus(userId, orderStatus, pageable);
-        } else {
-            orders = orderRepository.findByUserId(userId, pageable);
-        }
+    /**
+     * Keyset-paginated order history, newest first. Pages cost the same at any depth and no count is run.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getUserOrders(Long userId, String status, String cursor, int size) {
+        PageCursor after = PageCursor.decode(cursor);
+        List<Order> orders = orderRepository.findAllWithDetails(orderRepository.findUserOrderIdsBefore(userId,
+                parseStatus(status), after != null ? after.getSortKey() : null, after != null ? after.getId() : null,
+                PageRequest.of(0, size + 1)));
+
+        return CursorPageResponse.of(orders, size, orderMapper::toResponse,
+                order -> PageCursor.of(order.getCreatedAt(), order.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getAllOrders(String status, String cursor, int size) {
+        PageCursor after = PageCursor.decode(cursor);
+        List<Order> orders = orderRepository.findAllWithDetails(orderRepository.findOrderIdsBefore(
+                parseStatus(status), after != null ? after.getSortKey() : null, after != null ? after.getId() : null,
+                PageRequest.of(0, size + 1)));
+
+        return CursorPageResponse.of(orders, size, orderMapper::toResponse,
+                order -> PageCursor.of(order.getCreatedAt(), order.getId()));
+    }
 
-        return orders.map(orderMapper::toResponse);
+    private Order.OrderStatus parseStatus(String status) {
+        return status != null && !status.isEmpty() ? Order.OrderStatus.valueOf(status) : null;
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public Page<OrderResponse> getAllOrders(String status, String search, Pageable pageable) {
-        Page<Order> orders;
+        Page<Long> ids;
 
         if (status != null && !status.isEmpty()) {
-            Order.OrderStatus orderStatus = Order.OrderStatus.valueOf(status);
-            orders = orderRepository.findByStatus(orderStatus, pageable);
+            ids = orderRepository.findOrderIds(Order.OrderStatus.valueOf(status), pageable);
         } else if (search != null && !search.isEmpty()) {
-            orders = orderRepository.searchOrders(search, pageable);
+            ids = orderRepository.searchOrderIds(search, pageable);
         } else {
-            orders = orderRepository.findAll(pageable);
+            ids = orderRepository.findOrderIds(null, pageable);
         }
 
-        return orders.map(orderMapper::toResponse);
+        return orderRepository.findAllWithDetails(ids).map(orderMapper::toResponse);
     }
 
-    @Transactional(readOnly = false)
+    // Not readOnly: clients open an order right after placing or updating it, before a replica catches up
     public OrderResponse getOrderDetails(Long orderId, User user) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
@@ -274,10 +291,7 @@ public class OrderService {
         order.setCancelledAt(LocalDateTime.now());
         order.setCancelledBy(user);
 
-        // Release stock
-        for (OrderItem item : order.getOrderItems()) {
-            productService.updateStock(item.getProduct().getId(), item.getQuantity(), false);
-        }
+        resolveStock(order, previousStatus, Order.OrderStatus.CANCELLED);
 
         // Process refund if payment was completed
         if (order.getPaymentStatus() == Order.PaymentStatus.COMPLETED) {
@@ -286,11 +300,12 @@ public class OrderService {
         }
 
         // Deduct loyalty points if earned
-        loyaltyService.deductPoints(order.getUser().getId(),
-                calculateLoyaltyPoints(order.getTotalAmount()),
-                "Order cancelled: #" + order.getOrderNumber());
+        publishOrderEvent(order, OutboxEvent.Type.ORDER_LOYALTY_POINTS, "loyalty-revoke", Map.of(
+                "points", -calculateLoyaltyPoints(order.getTotalAmount()),
+                "description", "Order cancelled: #" + order.getOrderNumber()));
 
         order = orderRepository.save(order);
+        recordSalesChange(order, previousStatus);
 
         // Create status history
         createStatusHistory(order, previousStatus, Order.OrderStatus.CANCELLED, reason);
@@ -315,6 +330,7 @@ public class OrderService {
             throw new RuntimeException("Invalid status transition from " + previousStatus + " to " + newStatus);
         }
 
+        resolveStock(order, previousStatus, newStatus);
         order.setStatus(newStatus);
         order.setUpdatedAt(LocalDateTime.now());
 
@@ -335,6 +351,7 @@ public class OrderService {
         }
 
         order = orderRepository.save(order);
+        recordSalesChange(order, previousStatus);
 
         // Create status history
         createStatusHistory(order, previousStatus, newStatus, notes);
@@ -360,8 +377,12 @@ public class OrderService {
 
             // Update order status if it was pending payment
             if (order.getStatus() == Order.OrderStatus.PENDING) {
+                resolveStock(order, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED);
                 order.setStatus(Order.OrderStatus.CONFIRMED);
+                recordSalesChange(order, Order.OrderStatus.PENDING);
             }
+        } else if (status == Order.PaymentStatus.FAILED && order.getStatus() == Order.OrderStatus.PENDING) {
+            stockReservationService.release(order);
         }
 
         order = orderRepository.save(order);
@@ -371,7 +392,7 @@ public class OrderService {
         return orderMapper.toResponse(order);
     }
 
-    @Transactional(readOnly = false)
+    // Not readOnly, like getOrderDetails
     public Map<String, Object> getOrderTracking(Long orderId, User user) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
@@ -407,7 +428,7 @@ public class OrderService {
         return tracking;
     }
 
-    public byte[] generateInvoicePdf(Long orderId, User user) {
+    public InvoiceService.InvoicePdf getInvoicePdf(Long orderId, User user) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
@@ -416,7 +437,11 @@ public class OrderService {
             throw new RuntimeException("Unauthorized access to order");
         }
 
-        return invoiceService.generateInvoicePdf(order.getInvoice().getId());
+        if (order.getInvoice() == null) {
+            throw new ResourceNotFoundException("Invoice not yet generated for order " + order.getOrderNumber());
+        }
+
+        return invoiceService.getInvoicePdf(order.getInvoice().getId());
     }
 
     public Map<String, Object> processReturnRequest(Long orderId, User user,
@@ -457,7 +482,7 @@ public class OrderService {
         return response;
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public OrderSummaryResponse getUserOrderSummary(Long userId) {
         OrderSummaryResponse summary = new OrderSummaryResponse();
 
@@ -500,7 +525,7 @@ public class OrderService {
         log.info("Review added for order: {}", order.getOrderNumber());
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public Map<String, Object> calculateShipping(Map<String, Object> shippingDetails) {
         String postalCode = (String) shippingDetails.get("postalCode");
         BigDecimal orderValue = new BigDecimal(shippingDetails.get("orderValue").toString());
@@ -522,7 +547,7 @@ public class OrderService {
         return shippingInfo;
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public Map<String, Object> validateCoupon(String couponCode, User user) {
         Coupon coupon = couponRepository.findByCode(couponCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Invalid coupon code"));
@@ -670,10 +695,48 @@ public class OrderService {
         orderStatusHistoryRepository.save(history);
     }
 
-    private void releaseReservedStock(Order order) {
+    private Map<Long, Product> lockProductsForCheckout(Map<Long, Integer> quantities) {
+        // One SELECT ... FOR UPDATE for all lines; rows are locked in id order so
+        // concurrent checkouts of overlapping carts cannot deadlock
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllByIdForUpdate(quantities.keySet())) {
+            products.put(product.getId(), product);
+        }
+
+        quantities.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found");
+            }
+            if (product.getAvailableQuantity() < quantity) {
+                throw new InsufficientStockException(
+                        "Insufficient stock for product: " + product.getName());
+            }
+        });
+        return products;
+    }
+
+    /**
+     * Applies a status change to the order's stock: confirming a pending order deducts its held stock;
+     * cancelling releases the hold, and stock already deducted for a confirmed order goes back on hand.
+     */
+    private void resolveStock(Order order, Order.OrderStatus from, Order.OrderStatus to) {
+        if (from == Order.OrderStatus.PENDING && to == Order.OrderStatus.CONFIRMED) {
+            stockReservationService.commit(order);
+        } else if (to == Order.OrderStatus.CANCELLED && from != Order.OrderStatus.CANCELLED) {
+            stockReservationService.release(order);
+            if (from != Order.OrderStatus.PENDING) {
+                inventoryService.restoreStock(orderQuantities(order));
+            }
+        }
+    }
+
+    private Map<Long, Integer> orderQuantities(Order order) {
+        Map<Long, Integer> quantities = new HashMap<>();
         for (OrderItem item : order.getOrderItems()) {
-            inventoryService.releaseReservedStock(item.getProduct().getId(), item.getQuantity());
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
         }
+        return quantities;
     }
 
     private boolean isAdmin(User user) {
@@ -682,41 +745,61 @@ public class OrderService {
     }
 
 private void sendOrderConfirmation(Order order) {
-        // Send email
-        emailService.sendOrderConfirmation(order);
+        publishOrderEvent(order, OutboxEvent.Type.ORDER_EMAIL, "confirmation-email",
+                Map.of("template", OrderEventHandler.EMAIL_CONFIRMATION));
         // Send SMS if enabled
         if (order.getUser().getPhoneNumber() != null) {
-            smsService.sendOrderConfirmationSMS(order);
+            publishOrderEvent(order, OutboxEvent.Type.ORDER_SMS, "confirmation-sms", Map.of());
         }
 
-        // Create notification
-        notificationService.createNotification(
-                order.getUser(),
-                "Order Confirmed",
-                "Your order #" + order.getOrderNumber() + " has been confirmed",
-                "ORDER",
-                order.getId());
+        publishOrderEvent(order, OutboxEvent.Type.ORDER_NOTIFICATION, "confirmation-notification", Map.of(
+                "title", "Order Confirmed",
+                "message", "Your order #" + order.getOrderNumber() + " has been confirmed"));
     }
 
     private void sendCancellationNotification(Order order) {
-        emailService.sendOrderCancellation(order);
+        publishOrderEvent(order, OutboxEvent.Type.ORDER_EMAIL, "cancellation-email",
+                Map.of("template", OrderEventHandler.EMAIL_CANCELLATION));
 
-        notificationService.createNotification(
-                order.getUser(),
-                "Order Cancelled",
-                "Your order #" + order.getOrderNumber() + " has been cancelled",
-                "ORDER",
-                order.getId());
+        publishOrderEvent(order, OutboxEvent.Type.ORDER_NOTIFICATION, "cancellation-notification", Map.of(
+                "title", "Order Cancelled",
+                "message", "Your order #" + order.getOrderNumber() + " has been cancelled"));
     }
 
     private void sendStatusUpdateNotification(Order order) {
-        emailService.sendOrderStatusUpdate(order);
+        String status = order.getStatus().name();
+        publishOrderEvent(order, OutboxEvent.Type.ORDER_EMAIL, "status-" + status + "-email",
+                Map.of("template", OrderEventHandler.EMAIL_STATUS_UPDATE));
+
+        publishOrderEvent(order, OutboxEvent.Type.ORDER_NOTIFICATION, "status-" + status + "-notification", Map.of(
+                "title", "Order Status Updated",
+                "message", "Your order #" + order.getOrderNumber() + " status: " + order.getStatus()));
+    }
+
+    /**
+     * Moves the order into its current status bucket in the sales rollup and its customer's revenue;
+     * {@code fromStatus} is null for new orders.
+     */
+    private void recordSalesChange(Order order, Order.OrderStatus fromStatus) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("saleDate", order.getCreatedAt().toLocalDate().toString());
+        payload.put("userId", order.getUser().getId());
+        payload.put("paymentMethod", order.getPaymentMethod() != null
+                ? order.getPaymentMethod().name() : SalesRollupService.UNKNOWN_PAYMENT_METHOD);
+        // As a string so the amount survives the JSON round trip exactly
+        payload.put("amount", (order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO).toPlainString());
+        payload.put("toStatus", order.getStatus().name());
+        if (fromStatus != null) {
+            payload.put("fromStatus", fromStatus.name());
+        }
+
+        String transition = (fromStatus != null ? fromStatus.name() : "NEW") + "-" + order.getStatus().name();
+        // One event per consumer, so a rollup rebuild can supersede its own without touching customer revenue
+        publishOrderEvent(order, OutboxEvent.Type.ORDER_SALES_ROLLUP, "sales-" + transition, payload);
+        publishOrderEvent(order, OutboxEvent.Type.ORDER_CUSTOMER_REVENUE, "revenue-" + transition, payload);
+    }
 
-        notificationService.createNotification(
-                order.getUser(),
-                "Order Status Updated",
-                "Your order #" + order.getOrderNumber() + " status: " + order.getStatus(),
-                "ORDER",
-                order.getId());
+    private void publishOrderEvent(Order order, OutboxEvent.Type type, String effect, Map<String, Object> payload) {
+        outboxService.publish(type, order.getId(), "order:" + order.getId() + ":" + effect, payload);
     }
-}
\ No newline at end of file
+}
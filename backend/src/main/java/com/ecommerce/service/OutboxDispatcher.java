@@ -0,0 +1,161 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.OutboxEvent;
+import com.ecommerce.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code outbox_events} in batches. Every event is delivered in its own transaction;
+ * failures are retried with exponential backoff until {@code app.outbox.max-attempts} is reached.
+ */
+@Service
+@Slf4j
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<OutboxEvent.Type, List<OutboxEventHandler>> handlers = new EnumMap<>(OutboxEvent.Type.class);
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final Counter dispatchedEvents;
+    private final Counter retriedEvents;
+    private final Counter failedEvents;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retry-backoff:30s}")
+    private Duration retryBackoff;
+
+    @Value("${app.outbox.max-retry-backoff:1h}")
+    private Duration maxRetryBackoff;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository, OutboxService outboxService,
+            List<OutboxEventHandler> eventHandlers, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        for (OutboxEventHandler handler : eventHandlers) {
+            for (OutboxEvent.Type type : handler.getEventTypes()) {
+                handlers.computeIfAbsent(type, t -> new ArrayList<>()).add(handler);
+            }
+        }
+
+        Gauge.builder("outbox.events.pending", pendingEvents, AtomicLong::get)
+                .description("Outbox events waiting for delivery")
+                .register(meterRegistry);
+        this.dispatchedEvents = Counter.builder("outbox.events.dispatched").register(meterRegistry);
+        this.retriedEvents = Counter.builder("outbox.events.retried").register(meterRegistry);
+        this.failedEvents = Counter.builder("outbox.events.failed")
+                .description("Outbox events abandoned after the maximum number of attempts")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:1s}")
+    public void dispatch() {
+        List<Long> ids;
+        int handled;
+        do {
+            ids = outboxEventRepository.findDueIds(OutboxEvent.Status.PENDING, LocalDateTime.now(),
+                    PageRequest.of(0, batchSize));
+            handled = 0;
+            for (Long id : ids) {
+                if (dispatchEvent(id)) {
+                    handled++;
+                }
+            }
+            // Stop when the batch was short or every event in it is held by another node
+        } while (ids.size() == batchSize && handled > 0);
+
+        pendingEvents.set(outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING));
+    }
+
+    private boolean dispatchEvent(Long id) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> deliver(id)));
+        } catch (RuntimeException ex) {
+            // The delivery transaction rolled back; record the attempt separately
+            transactionTemplate.executeWithoutResult(status -> recordFailure(id, ex));
+            return true;
+        }
+    }
+
+    private boolean deliver(Long id) {
+        OutboxEvent event = outboxEventRepository.findByIdForUpdate(id).orElse(null);
+        if (event == null || event.getStatus() != OutboxEvent.Status.PENDING) {
+            // Locked by another node, or already delivered
+            return false;
+        }
+
+        Map<String, Object> payload = outboxService.readPayload(event);
+        for (OutboxEventHandler handler : handlers.getOrDefault(event.getEventType(), List.of())) {
+            handler.handle(event, payload);
+        }
+
+        event.setStatus(OutboxEvent.Status.PROCESSED);
+        event.setAttempts(event.getAttempts() + 1);
+        event.setProcessedAt(LocalDateTime.now());
+        event.setLastError(null);
+        dispatchedEvents.increment();
+        return true;
+    }
+
+    private void recordFailure(Long id, RuntimeException ex) {
+        OutboxEvent event = outboxEventRepository.findByIdForUpdate(id).orElse(null);
+        if (event == null || event.getStatus() != OutboxEvent.Status.PENDING) {
+            return;
+        }
+
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(ex.getMessage()));
+
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxEvent.Status.FAILED);
+            failedEvents.increment();
+            log.error("Outbox event {} ({}) failed permanently after {} attempts",
+                    event.getIdempotencyKey(), event.getEventType(), attempts, ex);
+        } else {
+            event.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+            retriedEvents.increment();
+            log.warn("Outbox event {} ({}) failed, attempt {} of {}: {}",
+                    event.getIdempotencyKey(), event.getEventType(), attempts, maxAttempts, ex.getMessage());
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.OutboxEvent;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Delivers outbox events of the given types. Handlers run inside the dispatcher's per-event
+ * transaction, so database side effects commit together with the event being marked processed.
+ * External side effects are delivered at least once and should use the event's idempotency key.
+ */
+public interface OutboxEventHandler {
+
+    Set<OutboxEvent.Type> getEventTypes();
+
+    void handle(OutboxEvent event, Map<String, Object> payload);
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.OutboxEvent;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Records side effects in the caller's transaction; {@link OutboxDispatcher} delivers them
+ * after commit. An event is stored only once per idempotency key.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEvent.Type type, Long aggregateId, String idempotencyKey, Map<String, Object> payload) {
+        if (outboxEventRepository.existsByIdempotencyKey(idempotencyKey)) {
+            log.debug("Outbox event {} already recorded", idempotencyKey);
+            return;
+        }
+
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type);
+        event.setAggregateId(aggregateId);
+        event.setIdempotencyKey(idempotencyKey);
+        event.setPayload(writePayload(payload));
+        event.setStatus(OutboxEvent.Status.PENDING);
+        event.setAttempts(0);
+        event.setNextAttemptAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+    }
+
+    public Map<String, Object> readPayload(OutboxEvent event) {
+        if (event.getPayload() == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable payload for outbox event " + event.getId(), e);
+        }
+    }
+
+    private String writePayload(Map<String, Object> payload) {
+        if (payload == null || payload.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ package com.ecommerce.service;
 import com.ecommerce.dto.request.ProductCreateRequest;
 import com.ecommerce.dto.request.ProductSearchRequest;
 import com.ecommerce.dto.request.ProductUpdateRequest;
+import com.ecommerce.dto.response.CursorPageResponse;
 import com.ecommerce.dto.response.ProductResponse;
 import com.ecommerce.entity.Category;
 import com.ecommerce.entity.Product;
@@ -13,17 +14,20 @@ import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.mapper.ProductMapper;
 import com.ecommerce.repository.CategoryRepository;
 import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.projection.ProductListingView;
+import com.ecommerce.utils.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.persistence.criteria.Predicate;
@@ -47,72 +51,83 @@ public class ProductService {
     private final FileStorageService fileStorageService;
     private final ElasticsearchService elasticsearchService;
     private final CacheService cacheService;
+    private final ProductViewCounter productViewCounter;
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public Page<ProductResponse> getAllProducts(Pageable pageable, String category,
             Boolean inStock, User.CustomerType customerType) {
-        Specification<Product> spec = Specification.where(isActive());
+        Page<ProductListingView> products = productRepository.findListings(emptyToNull(category),
+                Boolean.TRUE.equals(inStock), pageable);
 
-        if (category != null && !category.isEmpty()) {
-            spec = spec.and(hasCategory(category));
-        }
+        return products.map(product -> toListingResponse(product, customerType));
+    }
 
-        if (inStock != null && inStock) {
-            spec = spec.and(isInStock());
-        }
+    /**
+     * Keyset-paginated product listing in id order, for infinite-scroll clients.
+     * Each page is an index range scan from the cursor and no count query is run.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductResponse> getAllProducts(String cursor, int size, String category,
+            Boolean inStock, User.CustomerType customerType) {
+        PageCursor after = PageCursor.decode(cursor);
+        List<ProductListingView> products = productRepository.findListingsAfter(emptyToNull(category),
+                Boolean.TRUE.equals(inStock), after != null ? after.getId() : null, PageRequest.of(0, size + 1));
 
-        Page<Product> products = productRepository.findAll(spec, pageable);
+        return CursorPageResponse.of(products, size, product -> toListingResponse(product, customerType),
+                product -> PageCursor.of(product.getId()));
+    }
 
-        return products.map(product -> {
-            ProductResponse response = productMapper.toResponse(product);
-            response.setPrice(getCustomerPrice(product, customerType));
-            response.setInStock(product.getStockQuantity() > 0);
-            response.setLowStock(product.getStockQuantity() <= product.getMinStockLevel());
-            return response;
-        });
+    private ProductResponse toListingResponse(ProductListingView product, User.CustomerType customerType) {
+        ProductResponse response = productMapper.toResponse(product);
+        response.setPrice(getCustomerPrice(product.getBasePrice(), product.getBusinessPrice(), customerType));
+
+        int onHand = product.getStockQuantity() != null ? product.getStockQuantity() : 0;
+        int reserved = product.getReservedQuantity() != null ? product.getReservedQuantity() : 0;
+        int available = Math.max(onHand - reserved, 0);
+        response.setInStock(available > 0);
+        response.setLowStock(product.getMinStockLevel() != null && available <= product.getMinStockLevel());
+        return response;
     }
 
-    @Cacheable(value = "products", key = "#id + '_' + #customerType")
-    @Transactional(readOnly = false)
+    @Cacheable(value = CacheService.PRODUCTS_CACHE,
+            key = "T(com.ecommerce.service.CacheService).productKey(#id, #customerType)")
+    // Not readOnly: cache fills read from the primary, so a lagging replica cannot cache a stale product
     public ProductResponse getProductById(Long id, User.CustomerType customerType) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
         ProductResponse response = productMapper.toResponse(product);
         response.setPrice(getCustomerPrice(product, customerType));
-        response.setInStock(product.getStockQuantity() > 0);
-        response.setLowStock(product.getStockQuantity() <= product.getMinStockLevel());
-
-        // Increment view count
-        productRepository.incrementViewCount(id);
+        response.setInStock(product.getAvailableQuantity() > 0);
+        response.setLowStock(product.getAvailableQuantity() <= product.getMinStockLevel());
 
         return response;
     }
 
-    @Transactional(readOnly = false)
+    /**
+     * Full-text searches use the search index and consider its {@code app.search.max-hits} most relevant
+     * matches; the other filters and a requested sort apply within those. Unsorted results are in order of
+     * relevance.
+     */
+    @Transactional(readOnly = true)
     public Page<ProductResponse> searchProducts(ProductSearchRequest searchRequest,
             User.CustomerType customerType,
             Pageable pageable) {
         log.info("Searching products with criteria: {}", searchRequest);
 
-        // Use Elasticsearch for full-text search if available
-        if (elasticsearchService.isAvailable() && searchRequest.getSearchTerm() != null) {
+        // Use the search index for full-text search if available
+        if (elasticsearchService.isAvailable() && StringUtils.hasText(searchRequest.getSearchTerm())) {
             List<Long> productIds = elasticsearchService.searchProducts(searchRequest.getSearchTerm());
 
             if (productIds.isEmpty()) {
                 return Page.empty(pageable);
             }
 
-            Page<Product> products = productRepository.findByIdIn(productIds, pageable);
-            return products.map(product -> {
-                ProductResponse response = productMapper.toResponse(product);
-                response.setPrice(getCustomerPrice(product, customerType));
-                return response;
-            });
+            return searchIndexedProducts(productIds, searchRequest, customerType, pageable);
         }
 
         // Fallback to database search
-        Specification<Product> spec = buildSearchSpecification(searchRequest);
+        Specification<Product> spec = buildSearchSpecification(searchRequest, true);
         Page<Product> products = productRepository.findAll(spec, pageable);
 
         return products.map(product -> {
@@ -122,7 +137,6 @@ public class ProductService {
         });
     }
 
-    @CacheEvict(value = "products", allEntries = true)
     public ProductResponse createProduct(ProductCreateRequest request, User createdBy) {
         log.info("Creating new product: {}", request.getName());
 
@@ -146,7 +160,7 @@ public class ProductService {
 
         product = productRepository.save(product);
 
-        // Index in Elasticsearch
+        // Index for search
         elasticsearchService.indexProduct(product);
 
         log.info("Product created successfully: {}", product.getName());
@@ -154,7 +168,6 @@ public class ProductService {
         return productMapper.toResponse(product);
     }
 
-    @CacheEvict(value = "products", allEntries = true)
     public ProductResponse updateProduct(Long id, ProductUpdateRequest request, User updatedBy) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
@@ -177,15 +190,15 @@ public class ProductService {
 
         product = productRepository.save(product);
 
-        // Update in Elasticsearch
+        // Update in search index
         elasticsearchService.updateProduct(product);
+        cacheService.evictProduct(id);
 
         log.info("Product updated successfully: {}", product.getName());
 
         return productMapper.toResponse(product);
     }
 
-    @CacheEvict(value = "products", allEntries = true)
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
@@ -197,13 +210,13 @@ public class ProductService {
         product.setDeletedAt(LocalDateTime.now());
         productRepository.save(product);
 
-        // Remove from Elasticsearch
+        // Remove from search index
         elasticsearchService.deleteProduct(id);
+        cacheService.evictProduct(id);
 
         log.info("Product deleted successfully: {}", product.getName());
     }
 
-    @CacheEvict(value = "products", key = "#id + '*'")
     public ProductResponse toggleProductStatus(Long id, User updatedBy) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
@@ -214,72 +227,66 @@ public class ProductService {
 
         product = productRepository.save(product);
 
+        // Inactive products drop out of the search index
+        elasticsearchService.updateProduct(product);
+        cacheService.evictProduct(id);
+
         log.info("Product status toggled: {} - {}", product.getName(), product.getActive());
 
         return productMapper.toResponse(product);
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public List<ProductResponse> getFeaturedProducts(int limit, User.CustomerType customerType) {
-        List<Product> products = productRepository.findFeaturedProducts(
+        List<ProductListingView> products = productRepository.findFeaturedListings(
                 PageRequest.of(0, limit, Sort.by("createdAt").descending()));
 
         return products.stream()
-                .map(product -> {
-                    ProductResponse response = productMapper.toResponse(product);
-                    response.setPrice(getCustomerPrice(product, customerType));
-                    return response;
-                })
+                .map(product -> toListingResponse(product, customerType))
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public List<ProductResponse> getNewArrivals(int limit, User.CustomerType customerType) {
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
 
-        List<Product> products = productRepository.findNewArrivals(
+        List<ProductListingView> products = productRepository.findNewArrivalListings(
                 thirtyDaysAgo,
                 PageRequest.of(0, limit));
 
         return products.stream()
                 .map(product -> {
-                    ProductResponse response = productMapper.toResponse(product);
-                    response.setPrice(getCustomerPrice(product, customerType));
+                    ProductResponse response = toListingResponse(product, customerType);
                     response.setIsNew(true);
                     return response;
                 })
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public List<ProductResponse> getBestSellers(int limit, User.CustomerType customerType) {
-        List<Product> products = productRepository.findBestSellers(
+        List<ProductListingView> products = productRepository.findBestSellerListings(
                 PageRequest.of(0, limit));
 
         return products.stream()
                 .map(product -> {
-                    ProductResponse response = productMapper.toResponse(product);
-                    response.setPrice(getCustomerPrice(product, customerType));
+                    ProductResponse response = toListingResponse(product, customerType);
                     response.setIsBestSeller(true);
                     return response;
                 })
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public Page<ProductResponse> getProductsByCategory(Long categoryId,
             User.CustomerType customerType,
             Pageable pageable) {
-        Page<Product> products = productRepository.findByCategoryIdAndActiveTrue(categoryId, pageable);
+        Page<ProductListingView> products = productRepository.findListingsByCategoryId(categoryId, pageable);
 
-        return products.map(product -> {
-            ProductResponse response = productMapper.toResponse(product);
-            response.setPrice(getCustomerPrice(product, customerType));
-            return response;
-        });
+        return products.map(product -> toListingResponse(product, customerType));
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public List<ProductResponse> getRelatedProducts(Long productId, int limit,
             User.CustomerType customerType) {
         Product product = productRepository.findById(productId)
@@ -299,32 +306,31 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
 
-    @CacheEvict(value = "products", key = "#productId + '*'")
     public void updateStock(Long productId, Integer quantity, boolean isDeduction) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-
-        if (isDeduction) {
-            if (product.getStockQuantity() < quantity) {
-                throw new InsufficientStockException(
-                        String.format("Insufficient stock for product %s. Available: %d, Requested: %d",
-                                product.getName(), product.getStockQuantity(), quantity));
-            }
-            product.setStockQuantity(product.getStockQuantity() - quantity);
-        } else {
-            product.setStockQuantity(product.getStockQuantity() + quantity);
+        int updated = isDeduction
+                ? productRepository.decrementStock(productId, quantity)
+                : productRepository.incrementStock(productId, quantity);
+
+        if (updated == 0) {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+            throw new InsufficientStockException(
+                    String.format("Insufficient stock for product %s. Available: %d, Requested: %d",
+                            product.getName(), productRepository.findAvailableQuantityById(productId), quantity));
         }
 
-        product.setUpdatedAt(LocalDateTime.now());
-        productRepository.save(product);
+        cacheService.evictProduct(productId);
 
         // Check if low stock alert needed
-        if (product.getStockQuantity() <= product.getMinStockLevel()) {
+        if (isDeduction && productRepository.isLowStock(productId)) {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+            productRepository.refresh(product);
             sendLowStockAlert(product);
         }
 
         log.info("Stock updated for product {}: {} {}",
-                product.getName(),
+                productId,
                 isDeduction ? "-" : "+",
                 quantity);
     }
@@ -347,13 +353,14 @@ public class ProductService {
         product.getImageUrls().addAll(imageUrls);
 
         productRepository.save(product);
+        cacheService.evictProduct(productId);
 
         log.info("Uploaded {} images for product: {}", images.size(), product.getName());
 
         return imageUrls;
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public Map<String, Object> getAvailableFilters() {
         Map<String, Object> filters = new HashMap<>();
 
@@ -372,7 +379,7 @@ public class ProductService {
         return filters;
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public Map<String, Double> getPriceRange(String category) {
         BigDecimal minPrice;
         BigDecimal maxPrice;
@@ -393,7 +400,8 @@ public class ProductService {
     }
 
     public void recordProductView(Long productId, Long userId) {
-        productRepository.incrementViewCount(productId);
+        // Buffered in memory and flushed in batches by ProductViewCounter
+        productViewCounter.recordView(productId);
 
         if (userId != null) {
             // Record in user's recently viewed
@@ -401,42 +409,112 @@ public class ProductService {
         }
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public boolean checkAvailability(Long productId, int quantity) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
-        return product.getStockQuantity() >= quantity;
+        return product.getAvailableQuantity() >= quantity;
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     public int getAvailableStock(Long productId) {
         return productRepository.findById(productId)
-                .map(Product::getStockQuantity)
+                .map(Product::getAvailableQuantity)
                 .orElse(0);
     }
 
     // Helper methods
     private BigDecimal getCustomerPrice(Product product, User.CustomerType customerType) {
-        if (customerType == User.CustomerType.BUSINESS && product.getBusinessPrice() != null) {
-            return product.getBusinessPrice();
+        return getCustomerPrice(product.getBasePrice(), product.getBusinessPrice(), customerType);
+    }
+
+    private BigDecimal getCustomerPrice(BigDecimal basePrice, BigDecimal businessPrice,
+            User.CustomerType customerType) {
+        if (customerType == User.CustomerType.BUSINESS && businessPrice != null) {
+            return businessPrice;
+        }
+        return basePrice;
+    }
+
+    private static String emptyToNull(String value) {
+        return value != null && !value.isEmpty() ? value : null;
+    }
+
+    private Page<ProductResponse> searchIndexedProducts(List<Long> rankedIds, ProductSearchRequest request,
+            User.CustomerType customerType, Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            // The database filters, sorts and pages the candidates
+            Specification<Product> spec = buildSearchSpecification(request, false).and(hasIdIn(rankedIds));
+            return productRepository.findAll(spec, pageable).map(product -> {
+                ProductResponse response = productMapper.toResponse(product);
+                response.setPrice(getCustomerPrice(product, customerType));
+                return response;
+            });
+        }
+
+        List<Product> matches;
+        int total;
+
+        if (hasStructuredFilters(request)) {
+            // Apply the remaining filters to the bounded candidate set, then restore relevance order
+            Specification<Product> spec = buildSearchSpecification(request, false).and(hasIdIn(rankedIds));
+            Map<Long, Integer> rank = new HashMap<>();
+            for (int i = 0; i < rankedIds.size(); i++) {
+                rank.put(rankedIds.get(i), i);
+            }
+
+            List<Product> filtered = new ArrayList<>(productRepository.findAll(spec));
+            filtered.sort(Comparator.comparingInt(product -> rank.get(product.getId())));
+
+            total = filtered.size();
+            matches = slice(filtered, pageable);
+        } else {
+            // Only the requested page has to be loaded
+            List<Long> pageIds = slice(rankedIds, pageable);
+            Map<Long, Product> byId = productRepository.findAllById(pageIds).stream()
+                    .collect(Collectors.toMap(Product::getId, product -> product));
+
+            total = rankedIds.size();
+            matches = pageIds.stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
         }
-        return product.getBasePrice();
+
+        List<ProductResponse> content = matches.stream()
+                .map(product -> {
+                    ProductResponse response = productMapper.toResponse(product);
+                    response.setPrice(getCustomerPrice(product, customerType));
+                    return response;
+                })
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(content, pageable, total);
     }
 
-    private Specification<Product> isActive() {
-        return (root, query, criteriaBuilder) -> criteriaBuilder.isTrue(root.get("active"));
+    private boolean hasStructuredFilters(ProductSearchRequest request) {
+        return request.getCategoryId() != null
+                || request.getMinPrice() != null
+                || request.getMaxPrice() != null
+                || Boolean.TRUE.equals(request.getInStock())
+                || StringUtils.hasText(request.getBrand());
     }
 
-    private Specification<Product> hasCategory(String category) {
-        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("category").get("name"), category);
+    private <T> List<T> slice(List<T> items, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return items;
+        }
+        int from = (int) Math.min(pageable.getOffset(), items.size());
+        int to = Math.min(from + pageable.getPageSize(), items.size());
+        return items.subList(from, to);
     }
 
-    private Specification<Product> isInStock() {
-        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("stockQuantity"), 0);
+    private Specification<Product> hasIdIn(List<Long> ids) {
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
     }
 
-    private Specification<Product> buildSearchSpecification(ProductSearchRequest request) {
+    static Specification<Product> buildSearchSpecification(ProductSearchRequest request, boolean matchSearchTerm) {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
@@ -444,7 +522,7 @@ public class ProductService {
             predicates.add(criteriaBuilder.isTrue(root.get("active")));
 
             // Search term
-            if (request.getSearchTerm() != null && !request.getSearchTerm().isEmpty()) {
+            if (matchSearchTerm && request.getSearchTerm() != null && !request.getSearchTerm().isEmpty()) {
                 String searchTerm = "%" + request.getSearchTerm().toLowerCase() + "%";
                 predicates.add(criteriaBuilder.or(
                         criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), searchTerm),
@@ -468,7 +546,8 @@ public class ProductService {
 
             // In stock filter
             if (request.getInStock() != null && request.getInStock()) {
-                predicates.add(criteriaBuilder.greaterThan(root.get("stockQuantity"), 0));
+                predicates.add(criteriaBuilder.greaterThan(
+                        criteriaBuilder.diff(root.<Integer>get("stockQuantity"), root.<Integer>get("reservedQuantity")), 0));
             }
 
             // Brand filter
@@ -0,0 +1,146 @@
+package com.ecommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind product view counter.
+ *
+ * Views are accumulated in striped per-product {@link LongAdder}s and periodically
+ * flushed with one batched UPDATE, instead of taking a row lock on the product for every page view.
+ * A product's adder is dropped when a flush finds it empty, so only recently viewed products are tracked.
+ */
+@Service
+@Slf4j
+public class ProductViewCounter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter flushedViews;
+    private final Counter failedFlushes;
+
+    @Value("${app.views.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    public ProductViewCounter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        Gauge.builder("product.views.pending", this, ProductViewCounter::getPendingViewCount)
+                .description("Product views recorded in memory but not yet written to the database")
+                .register(meterRegistry);
+        Gauge.builder("product.views.pending.products", pendingViews, Map::size)
+                .description("Products tracked by the write-behind view counter")
+                .register(meterRegistry);
+        this.flushedViews = Counter.builder("product.views.flushed")
+                .description("Product views written to the database")
+                .register(meterRegistry);
+        this.failedFlushes = Counter.builder("product.views.flush.failures")
+                .register(meterRegistry);
+    }
+
+    public void recordView(Long productId) {
+        LongAdder adder = pendingViews.computeIfAbsent(productId, id -> new LongAdder());
+        adder.increment();
+        if (pendingViews.get(productId) != adder) {
+            // A flush dropped the adder after it was looked up; move what it has not taken to the current one
+            long late = adder.sumThenReset();
+            if (late > 0) {
+                recordViews(productId, late);
+            }
+        }
+    }
+
+    public long getPendingViewCount() {
+        long pending = 0;
+        for (LongAdder adder : pendingViews.values()) {
+            pending += adder.sum();
+        }
+        return pending;
+    }
+
+    @Scheduled(fixedDelayString = "${app.views.flush-interval:5s}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            // Sorted by id so concurrent flushes from several nodes lock rows in the same order
+            Map<Long, Long> deltas = new TreeMap<>();
+            for (Map.Entry<Long, LongAdder> entry : pendingViews.entrySet()) {
+                LongAdder adder = entry.getValue();
+                long delta = adder.sumThenReset();
+                if (delta == 0 && pendingViews.remove(entry.getKey(), adder)) {
+                    // Views recorded since the reset; any after this are moved over by recordView
+                    delta = adder.sumThenReset();
+                }
+                if (delta > 0) {
+                    deltas.put(entry.getKey(), delta);
+                }
+            }
+
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            List<Map.Entry<Long, Long>> entries = new ArrayList<>(deltas.entrySet());
+            for (int from = 0; from < entries.size(); from += flushBatchSize) {
+                List<Map.Entry<Long, Long>> chunk = entries.subList(from, Math.min(from + flushBatchSize, entries.size()));
+                try {
+                    writeChunk(chunk);
+                    chunk.forEach(entry -> flushedViews.increment(entry.getValue()));
+                } catch (RuntimeException ex) {
+                    // Put the deltas back so they are retried on the next flush
+                    chunk.forEach(entry -> recordViews(entry.getKey(), entry.getValue()));
+                    failedFlushes.increment();
+                    log.warn("Failed to flush {} product view counts, will retry: {}", chunk.size(), ex.getMessage());
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing {} pending product views before shutdown", getPendingViewCount());
+        flush();
+    }
+
+    private void writeChunk(List<Map.Entry<Long, Long>> chunk) {
+        // UPDATE products SET view_count = view_count + CASE id WHEN ? THEN ? ... END WHERE id IN (...)
+        StringBuilder sql = new StringBuilder("UPDATE products SET view_count = COALESCE(view_count, 0) + CASE id");
+        List<Object> args = new ArrayList<>(chunk.size() * 3);
+
+        for (Map.Entry<Long, Long> entry : chunk) {
+            sql.append(" WHEN ? THEN ?");
+            args.add(entry.getKey());
+            args.add(entry.getValue());
+        }
+
+        sql.append(" ELSE 0 END WHERE id IN (")
+                .append(String.join(", ", Collections.nCopies(chunk.size(), "?")))
+                .append(")");
+        chunk.forEach(entry -> args.add(entry.getKey()));
+
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private void recordViews(Long productId, long views) {
+        pendingViews.computeIfAbsent(productId, id -> new LongAdder()).add(views);
+    }
+}
@@ -2,16 +2,340 @@ package com.ecommerce.service;
 
 import com.ecommerce.dto.request.ExportReportRequest;
 import com.ecommerce.dto.response.CustomerRevenueResponse;
+import com.ecommerce.dto.response.ExportProgressResponse;
 import com.ecommerce.dto.response.ProfitLossReportResponse;
 import com.ecommerce.dto.response.SalesReportResponse;
+import com.ecommerce.exception.InvalidReportRequestException;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.service.report.CustomerRevenueEntry;
+import com.ecommerce.service.report.LongKeyedAccumulator;
+import com.ecommerce.service.report.PeriodBuckets;
+import com.ecommerce.service.report.ReportExport;
+import com.ecommerce.service.report.ReportWriter;
+import com.ecommerce.service.report.SalesAggregate;
+import com.ecommerce.service.report.SalesAggregationEngine;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
 
 @Service
+@RequiredArgsConstructor
+@Slf4j
 public class ReportService {
-    public SalesReportResponse generateSalesReport(LocalDate start, LocalDate end, String groupBy) { return null; }
-    public ProfitLossReportResponse generateProfitLossReport(LocalDate start, LocalDate end) { return null; }
-    public List<CustomerRevenueResponse> getTopCustomersByRevenue(int limit) { return List.of(); }
-    public byte[] exportReport(ExportReportRequest request) { return new byte[0]; }
-}
\ No newline at end of file
+
+    private static final int PROGRESS_LOG_INTERVAL = 100_000;
+    private static final int TOP_PRODUCTS = 10;
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final SalesAggregationEngine aggregationEngine;
+    private final CustomerRevenueService customerRevenueService;
+
+    @Value("${app.reports.cogs-ratio:0}")
+    private BigDecimal cogsRatio;
+
+    @Value("${app.reports.operating-expense-ratio:0}")
+    private BigDecimal operatingExpenseRatio;
+
+    // Finished exports stay visible to the progress endpoint for a while
+    private final Cache<String, ReportExport> exports = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofHours(1))
+            .maximumSize(1000)
+            .build();
+
+    /**
+     * Sales totals, a {@code groupBy} (DAY, WEEK, MONTH, YEAR) time series, top products and sales by
+     * category for non-cancelled orders created between {@code start} and {@code end} inclusive.
+     */
+    public SalesReportResponse generateSalesReport(LocalDate start, LocalDate end, String groupBy) {
+        validateRange(start, end);
+        PeriodBuckets buckets = new PeriodBuckets(start, end, PeriodBuckets.parse(groupBy));
+        SalesAggregate aggregate = aggregationEngine.aggregate(start, end, buckets);
+
+        SalesReportResponse response = new SalesReportResponse();
+        response.setTotalSales(fromPaise(aggregate.getTotalSales()));
+        response.setTotalOrders(aggregate.getOrderCount());
+        response.setAverageOrderValue(aggregate.getOrderCount() == 0 ? BigDecimal.ZERO
+                : response.getTotalSales().divide(BigDecimal.valueOf(aggregate.getOrderCount()), 2, RoundingMode.HALF_UP));
+
+        List<Map<String, Object>> salesByPeriod = new ArrayList<>(buckets.bucketCount());
+        for (int bucket = 0; bucket < buckets.bucketCount(); bucket++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("period", buckets.label(bucket));
+            row.put("amount", fromPaise(aggregate.getPeriodSales()[bucket]));
+            row.put("orderCount", aggregate.getPeriodOrders()[bucket]);
+            salesByPeriod.add(row);
+        }
+        response.setSalesByPeriod(salesByPeriod);
+
+        List<long[]> topProducts = topByRevenue(aggregate.getProducts(), TOP_PRODUCTS);
+        response.setTopProducts(toRevenueRows(topProducts, "productId", "productName",
+                names(productRepository.findNamesByIdIn(keys(topProducts)))));
+
+        List<long[]> categories = topByRevenue(aggregate.getCategories(), Integer.MAX_VALUE);
+        Map<Long, String> categoryNames = names(categoryRepository.findNamesByIdIn(keys(categories)));
+        categoryNames.put(0L, "Uncategorized");
+        response.setSalesByCategory(toRevenueRows(categories, "categoryId", "categoryName", categoryNames));
+
+        return response;
+    }
+
+    /**
+     * Profit and loss for non-cancelled orders created between {@code start} and {@code end} inclusive.
+     * Revenue excludes GST. Products carry no cost price, so cost of goods and operating expenses are
+     * estimated from the configured shares of revenue.
+     */
+    public ProfitLossReportResponse generateProfitLossReport(LocalDate start, LocalDate end) {
+        validateRange(start, end);
+        PeriodBuckets buckets = new PeriodBuckets(start, end, PeriodBuckets.GroupBy.YEAR);
+        SalesAggregate aggregate = aggregationEngine.aggregate(start, end, buckets);
+
+        BigDecimal revenue = fromPaise(aggregate.getSubtotal() - aggregate.getDiscount() + aggregate.getShipping());
+        BigDecimal cogs = revenue.multiply(cogsRatio).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal operatingExpenses = revenue.multiply(operatingExpenseRatio).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal grossProfit = revenue.subtract(cogs);
+        BigDecimal netProfit = grossProfit.subtract(operatingExpenses);
+
+        ProfitLossReportResponse response = new ProfitLossReportResponse();
+        response.setRevenue(revenue);
+        response.setCogs(cogs);
+        response.setGrossProfit(grossProfit);
+        response.setOperatingExpenses(operatingExpenses);
+        response.setNetProfit(netProfit);
+        response.setGrossMargin(percentageOf(grossProfit, revenue));
+        response.setNetMargin(percentageOf(netProfit, revenue));
+        return response;
+    }
+
+    public List<CustomerRevenueResponse> getTopCustomersByRevenue(int limit) {
+        if (limit < 1) {
+            throw new InvalidReportRequestException("limit must be positive");
+        }
+
+        return customerRevenueService.getTopCustomers(limit).stream()
+                .map(this::toCustomerRevenueResponse)
+                .toList();
+    }
+
+    public int rebuildCustomerRevenue() {
+        return customerRevenueService.rebuild();
+    }
+
+    /**
+     * Validates the request and registers an export; the file itself is produced by
+     * {@link #exportReport(String, OutputStream)} while the response is being written.
+     */
+    public ReportExport startExport(ExportReportRequest request) {
+        ReportExport.Type type = parse(ReportExport.Type.class, request.getReportType(), "report type");
+        ReportExport.Format format = parse(ReportExport.Format.class, request.getFormat(), "format");
+
+        LocalDate endDate = request.getEndDate() != null ? request.getEndDate() : LocalDate.now();
+        LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : endDate.minusMonths(1);
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidReportRequestException("endDate must not be before startDate");
+        }
+
+        ReportExport export = new ReportExport(type, format, startDate, endDate);
+        exports.put(export.getId(), export);
+        return export;
+    }
+
+    /**
+     * Streams the export row by row from a database cursor into {@code out}. Memory use does not
+     * depend on the number of rows. Stops with a {@link CancellationException} when the export is cancelled.
+     */
+    @Transactional(readOnly = true)
+    public void exportReport(String exportId, OutputStream out) throws IOException {
+        ReportExport export = getExport(exportId);
+        export.started();
+        long startTime = System.currentTimeMillis();
+
+        try (Stream<Object[]> rows = openRows(export);
+             ReportWriter writer = ReportWriter.create(export.getFormat(), out, export.getType().name())) {
+            writer.writeRow(header(export.getType()));
+
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                if (export.isCancelRequested()) {
+                    throw new CancellationException("Export " + exportId + " was cancelled");
+                }
+
+                writer.writeRow(iterator.next());
+                export.rowWritten();
+                if (export.getRowCount() % PROGRESS_LOG_INTERVAL == 0) {
+                    log.info("Export {} ({} {}): {} rows written", exportId, export.getType(), export.getFormat(),
+                            export.getRowCount());
+                }
+            }
+        } catch (CancellationException ex) {
+            export.finished(ReportExport.Status.CANCELLED);
+            log.info("Export {} cancelled after {} rows", exportId, export.getRowCount());
+            throw ex;
+        } catch (IOException | RuntimeException ex) {
+            export.finished(ReportExport.Status.FAILED);
+            log.warn("Export {} failed after {} rows: {}", exportId, export.getRowCount(), ex.getMessage());
+            throw ex;
+        }
+
+        export.finished(ReportExport.Status.COMPLETED);
+        log.info("Export {} ({} {}) completed: {} rows in {} ms", exportId, export.getType(), export.getFormat(),
+                export.getRowCount(), System.currentTimeMillis() - startTime);
+    }
+
+    public ExportProgressResponse getExportProgress(String exportId) {
+        ReportExport export = getExport(exportId);
+
+        ExportProgressResponse response = new ExportProgressResponse();
+        response.setExportId(export.getId());
+        response.setReportType(export.getType().name());
+        response.setFormat(export.getFormat().name());
+        response.setStatus(export.getStatus().name());
+        response.setRowsWritten(export.getRowCount());
+        response.setStartedAt(export.getStartedAt());
+        response.setFinishedAt(export.getFinishedAt());
+        return response;
+    }
+
+    public void cancelExport(String exportId) {
+        getExport(exportId).requestCancel();
+    }
+
+    private ReportExport getExport(String exportId) {
+        ReportExport export = exports.getIfPresent(exportId);
+        if (export == null) {
+            throw new ResourceNotFoundException("Export not found: " + exportId);
+        }
+        return export;
+    }
+
+    private Stream<Object[]> openRows(ReportExport export) {
+        return switch (export.getType()) {
+            case SALES -> orderRepository.streamSalesLines(export.getStartDate().atStartOfDay(),
+                    export.getEndDate().plusDays(1).atStartOfDay());
+            case TAX -> orderRepository.streamTaxLines(export.getStartDate().atStartOfDay(),
+                    export.getEndDate().plusDays(1).atStartOfDay());
+            case INVENTORY -> productRepository.streamInventoryLines();
+            case USER -> userRepository.streamUserLines();
+        };
+    }
+
+    private Object[] header(ReportExport.Type type) {
+        return switch (type) {
+            case SALES -> new Object[]{"Order Number", "Order Date", "Customer Email", "Status", "SKU", "Product",
+                    "Quantity", "Unit Price", "Tax", "Line Total"};
+            case TAX -> new Object[]{"Order Number", "Order Date", "Customer Email", "GSTIN", "Subtotal", "CGST",
+                    "SGST", "IGST", "Total Tax", "Total"};
+            case INVENTORY -> new Object[]{"SKU", "Product", "Category", "Stock", "Reserved", "Min Stock",
+                    "Base Price", "Active"};
+            case USER -> new Object[]{"ID", "Email", "First Name", "Last Name", "Customer Type", "Company",
+                    "Active", "Registered At"};
+        };
+    }
+
+    private CustomerRevenueResponse toCustomerRevenueResponse(CustomerRevenueEntry entry) {
+        CustomerRevenueResponse response = new CustomerRevenueResponse();
+        response.setCustomerId(entry.getUserId());
+        response.setCustomerName(entry.getCustomerName());
+        response.setEmail(entry.getEmail());
+        response.setTotalRevenue(entry.getTotalRevenue());
+        response.setOrderCount(entry.getOrderCount());
+        response.setAverageOrderValue(entry.getOrderCount() == 0 ? BigDecimal.ZERO
+                : entry.getTotalRevenue().divide(BigDecimal.valueOf(entry.getOrderCount()), 2, RoundingMode.HALF_UP));
+        response.setLastOrderDate(entry.getLastOrderDate() != null ? entry.getLastOrderDate().toString() : null);
+        return response;
+    }
+
+    private void validateRange(LocalDate start, LocalDate end) {
+        if (start == null || end == null) {
+            throw new InvalidReportRequestException("startDate and endDate are required");
+        }
+        if (end.isBefore(start)) {
+            throw new InvalidReportRequestException("endDate must not be before startDate");
+        }
+    }
+
+    // Entries as {key, revenue, quantity}, highest revenue first; a bounded min-heap keeps only the top {@code limit}
+    private List<long[]> topByRevenue(LongKeyedAccumulator accumulator, int limit) {
+        PriorityQueue<long[]> heap = new PriorityQueue<>(Comparator.comparingLong((long[] entry) -> entry[1]));
+        accumulator.forEach((key, counters, offset) -> {
+            heap.add(new long[]{key, counters[offset + SalesAggregate.REVENUE], counters[offset + SalesAggregate.QUANTITY]});
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        });
+
+        List<long[]> entries = new ArrayList<>(heap);
+        entries.sort(Comparator.comparingLong((long[] entry) -> entry[1]).reversed());
+        return entries;
+    }
+
+    private List<Map<String, Object>> toRevenueRows(List<long[]> entries, String idKey, String nameKey,
+            Map<Long, String> names) {
+        List<Map<String, Object>> rows = new ArrayList<>(entries.size());
+        for (long[] entry : entries) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put(idKey, entry[0]);
+            row.put(nameKey, names.get(entry[0]));
+            row.put("quantity", entry[2]);
+            row.put("revenue", fromPaise(entry[1]));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private List<Long> keys(List<long[]> entries) {
+        return entries.stream().map(entry -> entry[0]).toList();
+    }
+
+    private Map<Long, String> names(List<Object[]> rows) {
+        Map<Long, String> names = new HashMap<>();
+        rows.forEach(row -> names.put((Long) row[0], (String) row[1]));
+        return names;
+    }
+
+    private BigDecimal fromPaise(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    private BigDecimal percentageOf(BigDecimal part, BigDecimal whole) {
+        if (whole.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        return part.multiply(BigDecimal.valueOf(100)).divide(whole, 2, RoundingMode.HALF_UP);
+    }
+
+    private <E extends Enum<E>> E parse(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidReportRequestException("Unsupported " + name + " for streaming export: " + value);
+        }
+    }
+}
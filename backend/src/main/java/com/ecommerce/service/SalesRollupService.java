@@ -0,0 +1,234 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.OutboxEvent;
+import com.ecommerce.exception.RollupRebuildInProgressException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+/**
+ * Maintains {@code sales_daily_rollup}: order count and amount per day, status and payment method.
+ *
+ * {@link OrderService} records an {@link OutboxEvent.Type#ORDER_SALES_ROLLUP} event whenever an order
+ * enters a status, and this handler moves the order from its previous bucket to the new one.
+ * The dispatcher applies the delta in the same transaction that marks the event processed, so each
+ * change is counted exactly once. Sales charts read the rollup; weekly, monthly and yearly series
+ * are summed from the daily rows.
+ *
+ * Rebuilds from the orders table hold a MySQL named lock, so only one runs at a time across nodes,
+ * and they supersede the pending rollup events of the orders they cover. The event type is consumed by
+ * this handler only; customer revenue has its own, so superseding here does not drop its changes.
+ */
+@Service
+@Slf4j
+public class SalesRollupService implements OutboxEventHandler {
+
+    static final String UNKNOWN_PAYMENT_METHOD = "UNKNOWN";
+
+    private static final String UPSERT_SQL = "INSERT INTO sales_daily_rollup " +
+            "(sale_date, status, payment_method, order_count, total_amount) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+            "total_amount = total_amount + VALUES(total_amount)";
+
+    private static final String BACKFILL_LOCK = "sales_daily_rollup_backfill";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.sales-rollup.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${app.sales-rollup.backfill-chunk-days:31}")
+    private int backfillChunkDays;
+
+    public SalesRollupService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Set<OutboxEvent.Type> getEventTypes() {
+        return EnumSet.of(OutboxEvent.Type.ORDER_SALES_ROLLUP);
+    }
+
+    @Override
+    public void handle(OutboxEvent event, Map<String, Object> payload) {
+        LocalDate saleDate = LocalDate.parse((String) payload.get("saleDate"));
+        String paymentMethod = (String) payload.get("paymentMethod");
+        BigDecimal amount = new BigDecimal((String) payload.get("amount"));
+        String fromStatus = (String) payload.get("fromStatus");
+        String toStatus = (String) payload.get("toStatus");
+
+        if (fromStatus != null) {
+            jdbcTemplate.update(UPSERT_SQL, Date.valueOf(saleDate), fromStatus, paymentMethod, -1, amount.negate());
+        }
+        jdbcTemplate.update(UPSERT_SQL, Date.valueOf(saleDate), toStatus, paymentMethod, 1, amount);
+    }
+
+    public List<Map<String, Object>> getDailySales(LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.queryForList("SELECT sale_date AS date, SUM(total_amount) AS amount " +
+                "FROM sales_daily_rollup WHERE sale_date BETWEEN ? AND ? " +
+                "GROUP BY sale_date ORDER BY sale_date", Date.valueOf(startDate), Date.valueOf(endDate));
+    }
+
+    public List<Map<String, Object>> getWeeklySales(LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.queryForList("SELECT YEARWEEK(sale_date) AS week, SUM(total_amount) AS amount " +
+                "FROM sales_daily_rollup WHERE sale_date BETWEEN ? AND ? " +
+                "GROUP BY YEARWEEK(sale_date) ORDER BY week", Date.valueOf(startDate), Date.valueOf(endDate));
+    }
+
+    public List<Map<String, Object>> getMonthlySales(LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.queryForList("SELECT CONCAT(YEAR(sale_date), '-', MONTH(sale_date)) AS month, " +
+                "SUM(total_amount) AS amount FROM sales_daily_rollup WHERE sale_date BETWEEN ? AND ? " +
+                "GROUP BY YEAR(sale_date), MONTH(sale_date) ORDER BY YEAR(sale_date), MONTH(sale_date)",
+                Date.valueOf(startDate), Date.valueOf(endDate));
+    }
+
+    public List<Map<String, Object>> getYearlySales(int startYear, int endYear) {
+        return jdbcTemplate.queryForList("SELECT YEAR(sale_date) AS year, SUM(total_amount) AS amount " +
+                "FROM sales_daily_rollup WHERE sale_date BETWEEN ? AND ? " +
+                "GROUP BY YEAR(sale_date) ORDER BY year",
+                Date.valueOf(LocalDate.of(startYear, 1, 1)), Date.valueOf(LocalDate.of(endYear, 12, 31)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup) {
+            return;
+        }
+
+        try {
+            // First start after the table was created; checked under the lock so nodes starting together
+            // rebuild it once
+            withBackfillLock(() -> jdbcTemplate.queryForList("SELECT 1 FROM sales_daily_rollup LIMIT 1").isEmpty()
+                    ? rebuildAll() : 0);
+        } catch (RollupRebuildInProgressException ex) {
+            log.info("Sales rollup is being rebuilt by another node, skipping the startup backfill");
+        }
+    }
+
+    /**
+     * Rebuilds the rollup for every day that has orders.
+     */
+    public int backfillAll() {
+        return withBackfillLock(this::rebuildAll);
+    }
+
+    /**
+     * Recomputes the rollup for {@code [from, to]} from the orders table, a chunk of days per transaction.
+     * Fails with {@link RollupRebuildInProgressException} if another rebuild is running.
+     */
+    public int backfill(LocalDate from, LocalDate to) {
+        return withBackfillLock(() -> rebuild(from, to));
+    }
+
+    /**
+     * Runs {@code rebuild} holding the backfill lock. GET_LOCK belongs to the connection, which is kept
+     * for the duration; the chunks run in transactions on their own connections.
+     */
+    private int withBackfillLock(IntSupplier rebuild) {
+        Integer rows = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            if (!namedLock(connection, "SELECT GET_LOCK(?, 0)")) {
+                throw new RollupRebuildInProgressException("A sales rollup rebuild is already running");
+            }
+            try {
+                return rebuild.getAsInt();
+            } finally {
+                namedLock(connection, "SELECT RELEASE_LOCK(?)");
+            }
+        });
+        return rows != null ? rows : 0;
+    }
+
+    private static boolean namedLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, BACKFILL_LOCK);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private int rebuildAll() {
+        Timestamp[] range = jdbcTemplate.queryForObject("SELECT MIN(created_at), MAX(created_at) FROM orders",
+                (rs, rowNum) -> new Timestamp[]{rs.getTimestamp(1), rs.getTimestamp(2)});
+        if (range == null || range[0] == null) {
+            return 0;
+        }
+
+        return rebuild(range[0].toLocalDateTime().toLocalDate(), range[1].toLocalDateTime().toLocalDate());
+    }
+
+    private int rebuild(LocalDate from, LocalDate to) {
+        long startTime = System.currentTimeMillis();
+        int rows = 0;
+
+        for (LocalDate chunkStart = from; !chunkStart.isAfter(to); chunkStart = chunkStart.plusDays(backfillChunkDays)) {
+            LocalDate chunkEnd = chunkStart.plusDays(backfillChunkDays - 1L);
+            if (chunkEnd.isAfter(to)) {
+                chunkEnd = to;
+            }
+            rows += rebuildChunk(chunkStart, chunkEnd);
+        }
+
+        log.info("Sales rollup rebuilt for {} to {}: {} rows in {} ms",
+                from, to, rows, System.currentTimeMillis() - startTime);
+        return rows;
+    }
+
+    private int rebuildChunk(LocalDate from, LocalDate to) {
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+
+        Integer rows = transactionTemplate.execute(status -> {
+            // Range on created_at so the index is used; the grouping runs over the chunk only. The locking
+            // read makes order changes and new orders in the chunk wait until it commits, so the totals and
+            // the pending events below describe the same state.
+            List<Object[]> totals = jdbcTemplate.query("SELECT DATE(created_at), status, " +
+                            "COALESCE(payment_method, '" + UNKNOWN_PAYMENT_METHOD + "'), COUNT(*), COALESCE(SUM(total_amount), 0) " +
+                            "FROM orders WHERE created_at >= ? AND created_at < ? " +
+                            "GROUP BY DATE(created_at), status, COALESCE(payment_method, '" + UNKNOWN_PAYMENT_METHOD + "') " +
+                            "FOR SHARE",
+                    (rs, rowNum) -> new Object[]{rs.getDate(1), rs.getString(2), rs.getString(3),
+                            rs.getLong(4), rs.getBigDecimal(5)},
+                    start, end);
+
+            // The totals already include the changes whose events are still pending; applying those events
+            // afterwards would count them twice. An event being applied right now holds its row lock, so
+            // this waits for it and leaves it alone, and the delete below drops its delta.
+            int superseded = jdbcTemplate.update("UPDATE outbox_events e JOIN orders o ON o.id = e.aggregate_id " +
+                    "SET e.status = ?, e.processed_at = CURRENT_TIMESTAMP WHERE e.event_type = ? AND e.status = ? " +
+                    "AND o.created_at >= ? AND o.created_at < ?", OutboxEvent.Status.PROCESSED.name(),
+                    OutboxEvent.Type.ORDER_SALES_ROLLUP.name(), OutboxEvent.Status.PENDING.name(), start, end);
+            if (superseded > 0) {
+                log.debug("Sales rollup rebuild of {} to {} superseded {} pending events", from, to, superseded);
+            }
+
+            jdbcTemplate.update("DELETE FROM sales_daily_rollup WHERE sale_date BETWEEN ? AND ?",
+                    Date.valueOf(from), Date.valueOf(to));
+            jdbcTemplate.batchUpdate(UPSERT_SQL, totals);
+            return totals.size();
+        });
+        return rows != null ? rows : 0;
+    }
+}
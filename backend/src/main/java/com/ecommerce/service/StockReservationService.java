@@ -0,0 +1,163 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.StockReservation;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.StockReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-order stock holds with a time-to-live.
+ *
+ * A reservation moves quantity into {@code products.reserved_quantity} and records a ledger row
+ * in {@code stock_reservations}. Payment success commits the hold (deducting on-hand stock),
+ * failure or cancellation releases it, and holds nobody resolves are released by {@link #expireReservations()}.
+ */
+@Service
+@Slf4j
+@Transactional
+public class StockReservationService {
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter expiredReservations;
+
+    @Value("${app.reservations.ttl:15m}")
+    private Duration reservationTtl;
+
+    @Value("${app.reservations.sweep-batch-size:200}")
+    private int sweepBatchSize;
+
+    public StockReservationService(StockReservationRepository reservationRepository,
+            ProductRepository productRepository, InventoryService inventoryService,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.inventoryService = inventoryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.expiredReservations = Counter.builder("stock.reservations.expired")
+                .description("Stock reservations released because their hold expired")
+                .register(meterRegistry);
+    }
+
+    public void reserve(Order order, Map<Long, Integer> quantities) {
+        inventoryService.reserveStock(quantities);
+
+        LocalDateTime expiresAt = LocalDateTime.now().plus(reservationTtl);
+        List<StockReservation> reservations = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> {
+            StockReservation reservation = new StockReservation();
+            reservation.setOrder(order);
+            reservation.setProduct(productRepository.getReferenceById(productId));
+            reservation.setQuantity(quantity);
+            reservation.setStatus(StockReservation.Status.ACTIVE);
+            reservation.setExpiresAt(expiresAt);
+            reservations.add(reservation);
+        });
+        reservationRepository.saveAll(reservations);
+    }
+
+    /**
+     * Deducts the order's items from stock. Items still held are taken from the reservation;
+     * items whose hold already expired are deducted directly and may fail for lack of stock.
+     */
+    public void commit(Order order) {
+        Map<Long, Integer> held = resolve(order, StockReservation.Status.COMMITTED);
+        if (!held.isEmpty()) {
+            inventoryService.commitReservedStock(held);
+        }
+
+        Map<Long, Integer> unheld = new TreeMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            unheld.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        held.forEach((productId, quantity) -> unheld.computeIfPresent(productId,
+                (id, remaining) -> remaining > quantity ? remaining - quantity : null));
+        if (!unheld.isEmpty()) {
+            inventoryService.deductStock(unheld);
+        }
+    }
+
+    /**
+     * Releases the order's active holds. Returns false when there was nothing held.
+     */
+    public boolean release(Order order) {
+        Map<Long, Integer> held = resolve(order, StockReservation.Status.RELEASED);
+        if (held.isEmpty()) {
+            return false;
+        }
+        inventoryService.releaseReservedStock(held);
+        return true;
+    }
+
+    /**
+     * Releases expired holds in batches, each in its own transaction.
+     */
+    @Scheduled(fixedDelayString = "${app.reservations.sweep-interval:1m}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void expireReservations() {
+        int expired;
+        int total = 0;
+        do {
+            Integer released = transactionTemplate.execute(status -> expireBatch());
+            expired = released != null ? released : 0;
+            total += expired;
+        } while (expired == sweepBatchSize);
+
+        if (total > 0) {
+            expiredReservations.increment(total);
+            log.info("Released {} expired stock reservations", total);
+        }
+    }
+
+    private int expireBatch() {
+        List<StockReservation> batch = reservationRepository.findExpiredForUpdate(
+                StockReservation.Status.ACTIVE, LocalDateTime.now(), PageRequest.of(0, sweepBatchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        inventoryService.releaseReservedStock(markResolved(batch, StockReservation.Status.EXPIRED));
+        return batch.size();
+    }
+
+    private Map<Long, Integer> resolve(Order order, StockReservation.Status outcome) {
+        if (order.getId() == null) {
+            return Map.of();
+        }
+        List<StockReservation> active = reservationRepository.findByOrderIdAndStatusForUpdate(
+                order.getId(), StockReservation.Status.ACTIVE);
+        return markResolved(active, outcome);
+    }
+
+    private Map<Long, Integer> markResolved(List<StockReservation> reservations, StockReservation.Status outcome) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockReservation reservation : reservations) {
+            Product product = reservation.getProduct();
+            quantities.merge(product.getId(), reservation.getQuantity(), Integer::sum);
+            reservation.setStatus(outcome);
+        }
+        return quantities;
+    }
+}
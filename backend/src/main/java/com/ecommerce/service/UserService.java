@@ -6,6 +6,9 @@ import com.ecommerce.entity.*;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.mapper.*;
 import com.ecommerce.repository.*;
+import com.ecommerce.security.PrincipalCache;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -16,9 +19,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -46,10 +52,13 @@ public class UserService {
     private final NotificationMapper notificationMapper;
     private final ReviewMapper reviewMapper;
     private final LoyaltyMapper loyaltyMapper;
+    private final AddressMapper addressMapper;
     
     private final FileStorageService fileStorageService;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final PrincipalCache principalCache;
+    private final ObjectMapper objectMapper;
 
     // ... (Keep existing findByEmail, existsByEmail, updateLastLogin, getUserProfile, updateProfile, uploadAvatar methods) ...
 
@@ -88,6 +97,7 @@ public class UserService {
         }
         user.setUpdatedAt(LocalDateTime.now());
         user = userRepository.save(user);
+        principalCache.evict(user.getEmail());
         return userMapper.toProfileResponse(user);
     }
 
@@ -97,6 +107,7 @@ public class UserService {
         String avatarUrl = fileStorageService.uploadFile(file, "avatars/" + userId);
         user.setAvatarUrl(avatarUrl);
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
         return avatarUrl;
     }
 
@@ -128,6 +139,7 @@ public class UserService {
             .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         user.setActive(!user.getActive());
         user = userRepository.save(user);
+        principalCache.evict(user.getEmail());
         return userMapper.toResponse(user);
     }
 
@@ -138,6 +150,7 @@ public class UserService {
             .orElseThrow(() -> new ResourceNotFoundException("Role not found"));
         user.setRoles(Set.of(role));
         user = userRepository.save(user);
+        principalCache.evict(user.getEmail());
         return userMapper.toResponse(user);
     }
 
@@ -307,9 +320,65 @@ public class UserService {
         User user = userRepository.findById(userId).orElseThrow();
         user.setActive(false); // Soft delete
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
     }
 
-    public byte[] exportUserData(Long userId) {
-        return new byte[0];
+    /**
+     * Writes the user's profile, addresses and order history as JSON directly to {@code out}.
+     * Order lines come from a database cursor, so the export does not grow with the order history.
+     */
+    @Transactional(readOnly = true)
+    public void exportUserData(Long userId, OutputStream out) throws IOException {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+             Stream<Object[]> orderLines = orderRepository.streamUserOrderLines(userId)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartObject();
+            json.writeObjectField("profile", userMapper.toProfileResponse(user));
+            json.writeObjectField("addresses", addressRepository.findByUserId(userId).stream()
+                .map(addressMapper::toResponse)
+                .toList());
+
+            json.writeArrayFieldStart("orders");
+            Long currentOrderId = null;
+            Iterator<Object[]> iterator = orderLines.iterator();
+            while (iterator.hasNext()) {
+                Object[] line = iterator.next();
+
+                // Lines arrive ordered by order id; open a new order object when the id changes
+                if (!line[0].equals(currentOrderId)) {
+                    if (currentOrderId != null) {
+                        json.writeEndArray();
+                        json.writeEndObject();
+                    }
+                    currentOrderId = (Long) line[0];
+                    json.writeStartObject();
+                    json.writeObjectField("orderNumber", line[1]);
+                    json.writeObjectField("createdAt", line[2]);
+                    json.writeObjectField("status", line[3]);
+                    json.writeObjectField("paymentStatus", line[4]);
+                    json.writeObjectField("totalAmount", line[5]);
+                    json.writeArrayFieldStart("items");
+                }
+
+                if (line[6] != null) {
+                    json.writeStartObject();
+                    json.writeObjectField("sku", line[6]);
+                    json.writeObjectField("productName", line[7]);
+                    json.writeObjectField("quantity", line[8]);
+                    json.writeObjectField("unitPrice", line[9]);
+                    json.writeObjectField("totalAmount", line[10]);
+                    json.writeEndObject();
+                }
+            }
+            if (currentOrderId != null) {
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
     }
 }
\ No newline at end of file
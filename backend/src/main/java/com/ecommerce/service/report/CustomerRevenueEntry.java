@@ -0,0 +1,18 @@
+package com.ecommerce.service.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class CustomerRevenueEntry {
+    private final Long userId;
+    private final String customerName;
+    private final String email;
+    private final BigDecimal totalRevenue;
+    private final long orderCount;
+    private final LocalDate lastOrderDate;
+}
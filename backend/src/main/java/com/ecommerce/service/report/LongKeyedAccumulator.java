@@ -0,0 +1,124 @@
+package com.ecommerce.service.report;
+
+/**
+ * Open-addressing map from a {@code long} key to a fixed number of {@code long} counters.
+ * Used by the report aggregation so that adding a row neither boxes the key nor allocates.
+ * Not thread-safe; each scan chunk fills its own instance and the results are merged afterwards.
+ */
+public class LongKeyedAccumulator {
+
+    public interface EntryConsumer {
+        void accept(long key, long[] counters, int offset);
+    }
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final int width;
+    private long[] keys;
+    private boolean[] used;
+    private long[] values;
+    private int size;
+
+    public LongKeyedAccumulator(int width) {
+        this(width, 64);
+    }
+
+    public LongKeyedAccumulator(int width, int expectedKeys) {
+        this.width = width;
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedKeys / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public void add(long key, int counter, long delta) {
+        values[slot(key) * width + counter] += delta;
+    }
+
+    public void add(long key, long delta0, long delta1) {
+        int base = slot(key) * width;
+        values[base] += delta0;
+        values[base + 1] += delta1;
+    }
+
+    public void max(long key, int counter, long value) {
+        int index = slot(key) * width + counter;
+        if (value > values[index]) {
+            values[index] = value;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void merge(LongKeyedAccumulator other) {
+        other.forEach((key, counters, offset) -> {
+            int base = slot(key) * width;
+            for (int i = 0; i < width; i++) {
+                values[base + i] += counters[offset + i];
+            }
+        });
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                consumer.accept(keys[i], values, i * width);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            grow();
+            return slot(key);
+        }
+
+        used[index] = true;
+        keys[index] = key;
+        size++;
+        return index;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        long[] oldValues = values;
+
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i]) {
+                continue;
+            }
+            int index = mix(oldKeys[i]) & mask;
+            while (used[index]) {
+                index = (index + 1) & mask;
+            }
+            used[index] = true;
+            keys[index] = oldKeys[i];
+            System.arraycopy(oldValues, i * width, values, index * width, width);
+            size++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        values = new long[capacity * width];
+        size = 0;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
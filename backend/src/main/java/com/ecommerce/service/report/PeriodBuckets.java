@@ -0,0 +1,71 @@
+package com.ecommerce.service.report;
+
+import com.ecommerce.exception.InvalidReportRequestException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps a day offset from the report start to the index of its {@code groupBy} period,
+ * so rows can be bucketed with an array lookup instead of date arithmetic.
+ */
+public class PeriodBuckets {
+
+    public enum GroupBy {
+        DAY, WEEK, MONTH, YEAR
+    }
+
+    private final int[] bucketOfDay;
+    private final List<String> labels = new ArrayList<>();
+
+    public PeriodBuckets(LocalDate start, LocalDate end, GroupBy groupBy) {
+        int days = (int) ChronoUnit.DAYS.between(start, end) + 1;
+        bucketOfDay = new int[days];
+
+        String previous = null;
+        for (int offset = 0; offset < days; offset++) {
+            String label = label(start.plusDays(offset), groupBy);
+            if (!label.equals(previous)) {
+                labels.add(label);
+                previous = label;
+            }
+            bucketOfDay[offset] = labels.size() - 1;
+        }
+    }
+
+    public static GroupBy parse(String groupBy) {
+        if (groupBy == null || groupBy.isBlank()) {
+            return GroupBy.DAY;
+        }
+        try {
+            return GroupBy.valueOf(groupBy.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidReportRequestException("Unsupported groupBy: " + groupBy);
+        }
+    }
+
+    public int bucketCount() {
+        return labels.size();
+    }
+
+    public int bucketOf(int dayOffset) {
+        return bucketOfDay[dayOffset];
+    }
+
+    public String label(int bucket) {
+        return labels.get(bucket);
+    }
+
+    private static String label(LocalDate date, GroupBy groupBy) {
+        return switch (groupBy) {
+            case DAY -> date.toString();
+            case WEEK -> date.with(DayOfWeek.MONDAY).toString();
+            case MONTH -> YearMonth.from(date).toString();
+            case YEAR -> String.valueOf(date.getYear());
+        };
+    }
+}
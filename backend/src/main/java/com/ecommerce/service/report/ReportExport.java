@@ -0,0 +1,91 @@
+package com.ecommerce.service.report;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of one report export, shared between the thread writing the response and the
+ * progress and cancel endpoints.
+ */
+@Getter
+public class ReportExport {
+
+    public enum Type {
+        SALES, INVENTORY, TAX, USER
+    }
+
+    public enum Format {
+        CSV("csv", "text/csv"),
+        EXCEL("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Type type;
+    private final Format format;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private volatile Status status = Status.PENDING;
+    private volatile boolean cancelRequested;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    public ReportExport(Type type, Format format, LocalDate startDate, LocalDate endDate) {
+        this.type = type;
+        this.format = format;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public String getFilename() {
+        return String.format("%s_%s.%s", type, LocalDate.now(), format.getExtension());
+    }
+
+    public long getRowCount() {
+        return rowsWritten.get();
+    }
+
+    public void started() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    public void rowWritten() {
+        rowsWritten.incrementAndGet();
+    }
+
+    public void finished(Status finalStatus) {
+        finishedAt = LocalDateTime.now();
+        status = finalStatus;
+    }
+
+    public void requestCancel() {
+        cancelRequested = true;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.service.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes report rows straight to an output stream, one row at a time.
+ * {@link #close()} finishes the document but leaves the underlying stream open.
+ */
+public interface ReportWriter extends Closeable {
+
+    void writeRow(Object... values) throws IOException;
+
+    static ReportWriter create(ReportExport.Format format, OutputStream out, String sheetName) {
+        return switch (format) {
+            case CSV -> new CsvReportWriter(out);
+            case EXCEL -> new XlsxReportWriter(out, sheetName);
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.service.report;
+
+import lombok.Getter;
+
+/**
+ * Partial sales totals for one chunk of the report range. Amounts are kept in paise (cents)
+ * as {@code long}, and only converted to {@code BigDecimal} when the report is built.
+ */
+@Getter
+public class SalesAggregate {
+
+    // Counter columns of the product and category accumulators
+    public static final int REVENUE = 0;
+    public static final int QUANTITY = 1;
+
+    private final long[] periodSales;
+    private final long[] periodOrders;
+    private final LongKeyedAccumulator products = new LongKeyedAccumulator(2, 256);
+    private final LongKeyedAccumulator categories = new LongKeyedAccumulator(2, 32);
+    private long orderCount;
+    private long totalSales;
+    private long subtotal;
+    private long discount;
+    private long shipping;
+    private long tax;
+
+    public SalesAggregate(int buckets) {
+        this.periodSales = new long[buckets];
+        this.periodOrders = new long[buckets];
+    }
+
+    public void addOrder(int bucket, long total, long orderSubtotal, long orderDiscount, long orderShipping,
+            long orderTax) {
+        periodSales[bucket] += total;
+        periodOrders[bucket]++;
+        orderCount++;
+        totalSales += total;
+        subtotal += orderSubtotal;
+        discount += orderDiscount;
+        shipping += orderShipping;
+        tax += orderTax;
+    }
+
+    public void addItem(long productId, long categoryId, long quantity, long revenue) {
+        products.add(productId, revenue, quantity);
+        categories.add(categoryId, revenue, quantity);
+    }
+
+    public SalesAggregate merge(SalesAggregate other) {
+        for (int i = 0; i < periodSales.length; i++) {
+            periodSales[i] += other.periodSales[i];
+            periodOrders[i] += other.periodOrders[i];
+        }
+        products.merge(other.products);
+        categories.merge(other.categories);
+        orderCount += other.orderCount;
+        totalSales += other.totalSales;
+        subtotal += other.subtotal;
+        discount += other.discount;
+        shipping += other.shipping;
+        tax += other.tax;
+        return this;
+    }
+}
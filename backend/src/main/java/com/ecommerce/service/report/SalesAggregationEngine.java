@@ -0,0 +1,105 @@
+package com.ecommerce.service.report;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Scans orders and order lines for a date range in fixed-size chunks of days, one chunk per task on
+ * the report executor, and merges the partial {@link SalesAggregate}s.
+ *
+ * Amounts are converted to paise in SQL and read with {@code getLong}, so no {@code BigDecimal} is
+ * created per row. Each chunk is a range on {@code orders.created_at}, which the keyset index covers,
+ * and runs in its own read-only transaction so it is served by the replica.
+ */
+@Component
+@Slf4j
+public class SalesAggregationEngine {
+
+    private static final String ORDER_SQL = "SELECT DATEDIFF(created_at, ?), " + paise("total_amount") + ", " +
+            paise("subtotal") + ", " + paise("discount") + ", " + paise("shipping_charge") + ", " + paise("total_tax") +
+            " FROM orders WHERE created_at >= ? AND created_at < ? AND status <> 'CANCELLED'";
+
+    private static final String ITEM_SQL = "SELECT i.product_id, COALESCE(p.category_id, 0), i.quantity, " +
+            paise("i.total_amount") + " FROM order_items i JOIN orders o ON o.id = i.order_id " +
+            "JOIN products p ON p.id = i.product_id " +
+            "WHERE o.created_at >= ? AND o.created_at < ? AND o.status <> 'CANCELLED'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Executor reportExecutor;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    @Value("${app.reports.chunk-days:7}")
+    private int chunkDays;
+
+    public SalesAggregationEngine(JdbcTemplate jdbcTemplate, @Qualifier("reportExecutor") Executor reportExecutor,
+            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reportExecutor = reportExecutor;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Aggregates non-cancelled orders created in {@code [start, end]}.
+     */
+    public SalesAggregate aggregate(LocalDate start, LocalDate end, PeriodBuckets buckets) {
+        long startTime = System.currentTimeMillis();
+
+        List<CompletableFuture<SalesAggregate>> chunks = new ArrayList<>();
+        for (LocalDate chunkStart = start; !chunkStart.isAfter(end); chunkStart = chunkStart.plusDays(chunkDays)) {
+            LocalDate from = chunkStart;
+            LocalDate to = chunkStart.plusDays(chunkDays).isAfter(end) ? end.plusDays(1) : chunkStart.plusDays(chunkDays);
+            chunks.add(CompletableFuture.supplyAsync(() -> readOnlyTransactionTemplate.execute(
+                    status -> scanChunk(start, from, to, buckets)), reportExecutor));
+        }
+
+        SalesAggregate total = new SalesAggregate(buckets.bucketCount());
+        try {
+            for (CompletableFuture<SalesAggregate> chunk : chunks) {
+                total.merge(chunk.join());
+            }
+        } catch (CompletionException ex) {
+            chunks.forEach(chunk -> chunk.cancel(false));
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+
+        log.debug("Aggregated {} orders from {} to {} in {} chunks, {} ms", total.getOrderCount(), start, end,
+                chunks.size(), System.currentTimeMillis() - startTime);
+        return total;
+    }
+
+    private SalesAggregate scanChunk(LocalDate reportStart, LocalDate from, LocalDate to, PeriodBuckets buckets) {
+        SalesAggregate aggregate = new SalesAggregate(buckets.bucketCount());
+        Timestamp fromTime = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp toTime = Timestamp.valueOf(to.atStartOfDay());
+
+        jdbcTemplate.query(ORDER_SQL, rs -> {
+            aggregate.addOrder(buckets.bucketOf(rs.getInt(1)), rs.getLong(2), rs.getLong(3), rs.getLong(4),
+                    rs.getLong(5), rs.getLong(6));
+        }, Date.valueOf(reportStart), fromTime, toTime);
+
+        jdbcTemplate.query(ITEM_SQL, rs -> {
+            aggregate.addItem(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4));
+        }, fromTime, toTime);
+
+        return aggregate;
+    }
+
+    private static String paise(String column) {
+        return "CAST(ROUND(COALESCE(" + column + ", 0) * 100) AS SIGNED)";
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.service.report;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded top-K of customers by revenue: a min-heap of at most {@code capacity} entries with an index
+ * by user id, so an update costs O(K) at worst and a new customer only enters by beating the smallest.
+ *
+ * A customer whose revenue drops stays ranked with the lower total, although someone outside the heap
+ * may now be ahead; {@link #replaceAll} from the persisted totals corrects that.
+ */
+public class TopCustomers {
+
+    private static final Comparator<CustomerRevenueEntry> BY_REVENUE =
+            Comparator.comparing(CustomerRevenueEntry::getTotalRevenue).thenComparing(CustomerRevenueEntry::getUserId);
+
+    private final int capacity;
+    private final PriorityQueue<CustomerRevenueEntry> heap;
+    private final Map<Long, CustomerRevenueEntry> byUser = new HashMap<>();
+    private volatile List<CustomerRevenueEntry> ranking = List.of();
+
+    public TopCustomers(int capacity) {
+        this.capacity = capacity;
+        this.heap = new PriorityQueue<>(capacity + 1, BY_REVENUE);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Highest revenue first. Lock-free; returns the ranking as of the last update.
+     */
+    public List<CustomerRevenueEntry> top(int limit) {
+        List<CustomerRevenueEntry> current = ranking;
+        return current.subList(0, Math.min(limit, current.size()));
+    }
+
+    public synchronized void update(CustomerRevenueEntry entry) {
+        CustomerRevenueEntry existing = byUser.remove(entry.getUserId());
+        if (existing != null) {
+            heap.remove(existing);
+        } else if (heap.size() >= capacity && BY_REVENUE.compare(entry, heap.peek()) <= 0) {
+            return;
+        }
+
+        if (entry.getTotalRevenue().signum() > 0) {
+            heap.add(entry);
+            byUser.put(entry.getUserId(), entry);
+            if (heap.size() > capacity) {
+                byUser.remove(heap.poll().getUserId());
+            }
+        }
+        publish();
+    }
+
+    public synchronized void replaceAll(List<CustomerRevenueEntry> entries) {
+        heap.clear();
+        byUser.clear();
+        for (CustomerRevenueEntry entry : entries) {
+            if (heap.size() < capacity) {
+                heap.add(entry);
+                byUser.put(entry.getUserId(), entry);
+            }
+        }
+        publish();
+    }
+
+    private void publish() {
+        List<CustomerRevenueEntry> sorted = new ArrayList<>(heap);
+        sorted.sort(BY_REVENUE.reversed());
+        ranking = List.copyOf(sorted);
+    }
+}
@@ -7,6 +7,10 @@ public class AppConstants {
     public static final String DEFAULT_PAGE_SIZE = "10";
     public static final String DEFAULT_SORT_BY = "id";
     public static final String DEFAULT_SORT_DIRECTION = "asc";
+    public static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    // Fetch size that makes MySQL Connector/J stream rows instead of buffering the whole result set
+    public static final String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
 
     // Roles
     public static final String ROLE_ADMIN = "ROLE_ADMIN";
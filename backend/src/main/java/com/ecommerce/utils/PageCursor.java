@@ -0,0 +1,65 @@
+package com.ecommerce.utils;
+
+import com.ecommerce.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row returned by a keyset-paginated query, exchanged with clients as an
+ * opaque token. {@code sortKey} is null for listings ordered by id alone.
+ */
+public class PageCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime sortKey;
+    private final Long id;
+
+    private PageCursor(LocalDateTime sortKey, Long id) {
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    public static PageCursor of(LocalDateTime sortKey, Long id) {
+        return new PageCursor(sortKey, id);
+    }
+
+    public static PageCursor of(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    public LocalDateTime getSortKey() {
+        return sortKey;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = (sortKey != null ? sortKey.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a missing token, meaning "start from the first page".
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            String sortKey = raw.substring(0, separator);
+            return new PageCursor(sortKey.isEmpty() ? null : LocalDateTime.parse(sortKey),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new InvalidCursorException("Invalid page cursor");
+        }
+    }
+}
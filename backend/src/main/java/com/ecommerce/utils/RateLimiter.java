@@ -0,0 +1,34 @@
+package com.ecommerce.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces callers to at most {@code permitsPerSecond} by spacing permits evenly; no bursts.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextPermitAt = System.nanoTime();
+
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    public void acquire() {
+        long waitUntil;
+        synchronized (this) {
+            long now = System.nanoTime();
+            waitUntil = Math.max(nextPermitAt, now);
+            nextPermitAt = waitUntil + intervalNanos;
+        }
+
+        long remaining;
+        while ((remaining = waitUntil - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+-- V10__Id_Sequences.sql
+
+-- Block allocator for ids of high-volume tables (see PooledIdEntity). next_val is the first id of the
+-- next free block; each node reserves 50 ids at a time. Ids are seeded past the existing rows.
+CREATE TABLE id_sequences (
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO id_sequences (sequence_name, next_val) SELECT 'orders', COALESCE(MAX(id), 0) + 1 FROM orders;
+INSERT INTO id_sequences (sequence_name, next_val) SELECT 'order_items', COALESCE(MAX(id), 0) + 1 FROM order_items;
+INSERT INTO id_sequences (sequence_name, next_val)
+    SELECT 'order_status_history', COALESCE(MAX(id), 0) + 1 FROM order_status_history;
+INSERT INTO id_sequences (sequence_name, next_val) SELECT 'coupon_usages', COALESCE(MAX(id), 0) + 1 FROM coupon_usages;
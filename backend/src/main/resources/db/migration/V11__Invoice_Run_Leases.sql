@@ -0,0 +1,10 @@
+-- V11__Invoice_Run_Leases.sql
+
+-- A running invoice run is leased by the node executing it. The owner renews heartbeat_at while it works;
+-- another node takes the run over only once the heartbeat is older than the lease timeout.
+ALTER TABLE invoice_runs ADD COLUMN owner VARCHAR(64) NULL;
+ALTER TABLE invoice_runs ADD COLUMN heartbeat_at TIMESTAMP NULL;
+
+-- At most one RUNNING run per month, enforced by the database rather than a check before the insert
+ALTER TABLE invoice_runs ADD COLUMN running_period DATE AS (IF(status = 'RUNNING', period_start, NULL)) STORED;
+CREATE UNIQUE INDEX uk_invoice_runs_running_period ON invoice_runs (running_period);
@@ -0,0 +1,10 @@
+-- V12__Customer_Revenue_Events.sql
+
+-- Customer revenue gets its own outbox event type instead of sharing ORDER_SALES_ROLLUP, so that a
+-- sales rollup rebuild can supersede its own pending events without dropping revenue changes.
+-- Rollup events still pending are copied for the revenue handler.
+INSERT INTO outbox_events (event_type, aggregate_id, idempotency_key, payload, status, attempts, next_attempt_at)
+SELECT 'ORDER_CUSTOMER_REVENUE', aggregate_id, REPLACE(idempotency_key, ':sales-', ':revenue-'), payload,
+       'PENDING', 0, next_attempt_at
+FROM outbox_events
+WHERE event_type = 'ORDER_SALES_ROLLUP' AND status = 'PENDING';
@@ -0,0 +1,5 @@
+-- V13__Invoice_Updated_At_Precision.sql
+
+-- The stored invoice PDF is named after updated_at. With second precision two changes within the same
+-- second kept the first change's PDF, so updated_at now keeps microseconds.
+ALTER TABLE invoices MODIFY COLUMN updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
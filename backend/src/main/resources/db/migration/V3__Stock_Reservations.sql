@@ -0,0 +1,20 @@
+-- V3__Stock_Reservations.sql
+
+-- Quantity held by active reservations; available-to-sell is stock_quantity - reserved_quantity
+ALTER TABLE products ADD COLUMN reserved_quantity INT NOT NULL DEFAULT 0;
+
+-- Stock Reservations
+CREATE TABLE stock_reservations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE,
+    FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE,
+    INDEX idx_stock_reservations_status_expires (status, expires_at),
+    INDEX idx_stock_reservations_order (order_id, status)
+);
@@ -0,0 +1,7 @@
+-- V5__Order_Keyset_Indexes.sql
+
+-- Keyset pagination walks orders by (created_at, id) descending. InnoDB appends the primary key
+-- to secondary indexes, so these cover the tie-breaker on id as well.
+CREATE INDEX idx_orders_user_created ON orders (user_id, created_at);
+CREATE INDEX idx_orders_status_created ON orders (status, created_at);
+CREATE INDEX idx_orders_created ON orders (created_at);
@@ -0,0 +1,13 @@
+-- V6__Sales_Daily_Rollup.sql
+
+-- Order counts and amounts per day, status and payment method, kept current from outbox events
+-- by SalesRollupService so sales charts never group over the raw orders table
+CREATE TABLE sales_daily_rollup (
+    sale_date DATE NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    payment_method VARCHAR(50) NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(15,2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (sale_date, status, payment_method)
+);
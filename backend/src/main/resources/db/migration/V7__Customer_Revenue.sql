@@ -0,0 +1,14 @@
+-- V7__Customer_Revenue.sql
+
+-- Revenue and order count per customer over non-cancelled orders, kept current from outbox events
+-- by CustomerRevenueService. The revenue index serves the top-customer reload.
+CREATE TABLE customer_revenue (
+    user_id BIGINT PRIMARY KEY,
+    total_revenue DECIMAL(15,2) NOT NULL DEFAULT 0,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    last_order_date DATE,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_customer_revenue_total ON customer_revenue (total_revenue);
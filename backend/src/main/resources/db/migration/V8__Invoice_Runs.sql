@@ -0,0 +1,24 @@
+-- V8__Invoice_Runs.sql
+
+-- Month-end invoice runs for business customers. last_order_id is the checkpoint: it advances in the
+-- same transaction as each chunk of inserted invoices, so a resumed run continues after it.
+CREATE TABLE invoice_runs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    period_start DATE NOT NULL,
+    period_end DATE NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    last_order_id BIGINT NOT NULL DEFAULT 0,
+    invoices_created INT NOT NULL DEFAULT 0,
+    invoices_sent INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    started_at TIMESTAMP NULL,
+    finished_at TIMESTAMP NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_invoice_runs_status ON invoice_runs (status);
+
+-- Invoices created by a run; those still in DRAFT have not been emailed yet
+ALTER TABLE invoices ADD COLUMN invoice_run_id BIGINT NULL;
+CREATE INDEX idx_invoices_run_status ON invoices (invoice_run_id, status);
@@ -0,0 +1,24 @@
+-- V9__Mail_Queue.sql
+
+-- Outgoing email. The body is rendered when the message is queued; attachments are referenced by their
+-- path in file storage. claimed_at marks a message taken by a dispatcher, so a message left in SENDING
+-- by a node that died is picked up again once the claim is stale.
+CREATE TABLE mail_queue (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(500) NOT NULL,
+    body MEDIUMTEXT NOT NULL,
+    attachment_name VARCHAR(255),
+    attachment_path VARCHAR(500),
+    attachment_type VARCHAR(100),
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    claimed_at TIMESTAMP NULL,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP NULL
+);
+
+CREATE INDEX idx_mail_queue_status_next_attempt ON mail_queue (status, next_attempt_at);
+CREATE INDEX idx_mail_queue_status_claimed ON mail_queue (status, claimed_at);
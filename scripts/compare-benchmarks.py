@@ -0,0 +1,72 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files (target/jmh-results.json) from backend-benchmarks.
+
+Usage: scripts/compare-benchmarks.py BASELINE.json CANDIDATE.json [--threshold PERCENT]
+
+Prints the change of every benchmark's primary score and of its secondary metrics
+(e.g. repositoryCalls), and exits with status 1 when any score regressed by more
+than the threshold (default 10%).
+"""
+import argparse
+import json
+import sys
+
+# JMH modes where a lower score is better
+LOWER_IS_BETTER = {"avgt", "sample", "ss"}
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for entry in json.load(f):
+            params = entry.get("params") or {}
+            key = entry["benchmark"] + "".join(f" {k}={v}" for k, v in sorted(params.items()))
+            results[key] = entry
+        return results
+
+
+def change(old, new):
+    return (new - old) / old * 100.0 if old else 0.0
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("baseline")
+    parser.add_argument("candidate")
+    parser.add_argument("--threshold", type=float, default=10.0)
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    candidate = load(args.candidate)
+    regressions = []
+
+    for key in sorted(set(baseline) | set(candidate)):
+        if key not in baseline or key not in candidate:
+            print(f"{'added' if key in candidate else 'removed':>10}  {key}")
+            continue
+
+        old, new = baseline[key], candidate[key]
+        old_score = old["primaryMetric"]["score"]
+        new_score = new["primaryMetric"]["score"]
+        unit = new["primaryMetric"]["scoreUnit"]
+        delta = change(old_score, new_score)
+        worse = delta if new["mode"] in LOWER_IS_BETTER else -delta
+
+        marker = "REGRESSED" if worse > args.threshold else ""
+        print(f"{delta:+9.1f}%  {key}: {old_score:.3f} -> {new_score:.3f} {unit} {marker}")
+        if marker:
+            regressions.append(key)
+
+        for name, metric in sorted((new.get("secondaryMetrics") or {}).items()):
+            previous = (old.get("secondaryMetrics") or {}).get(name)
+            if previous is not None and previous["score"] != metric["score"]:
+                print(f"{'':>11}  {name}: {previous['score']:.1f} -> {metric['score']:.1f}")
+
+    if regressions:
+        print(f"\n{len(regressions)} benchmark(s) regressed by more than {args.threshold:.0f}%")
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())